@@ -14,7 +14,8 @@ public class DataInitializer {
     @Bean
     public CommandLineRunner initData(UserRepository userRepository, PasswordEncoder passwordEncoder,
             com.parkease.backend.repository.NotificationRepository notificationRepository,
-            com.parkease.backend.repository.ParkingLotRepository parkingLotRepository) {
+            com.parkease.backend.repository.ParkingLotRepository parkingLotRepository,
+            com.parkease.backend.service.SlotProvisioningService slotProvisioningService) {
         return args -> {
             if (userRepository.count() == 0) {
                 // Admin
@@ -76,6 +77,7 @@ public class DataInitializer {
                 lot.setLatitude(28.6273);
                 lot.setLongitude(77.3725);
                 parkingLotRepository.save(lot);
+                slotProvisioningService.provisionSlots(lot);
 
                 System.out.println(
                         "Default users created: admin@gmail.com / admin123, driver@parkease.com / driver123");
@@ -0,0 +1,49 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.service.AvailabilityStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Live availability for drivers and providers:
+ * GET /api/parking-lots/availability/stream?lots=1,2,3 (text/event-stream).
+ * Each "availability" event is one lot's delta:
+ * {lotId, availableSlots, totalSlots, status} or {lotId, removed: true}.
+ * A malformed list, or more than MAX_LOTS_PER_STREAM lots, is a bare 400.
+ */
+@RestController
+@RequestMapping("/api/parking-lots")
+public class AvailabilityStreamController {
+
+    private final AvailabilityStreamService availabilityStreamService;
+
+    public AvailabilityStreamController(AvailabilityStreamService availabilityStreamService) {
+        this.availabilityStreamService = availabilityStreamService;
+    }
+
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam String lots) {
+        Set<Long> lotIds = new LinkedHashSet<>();
+        try {
+            for (String part : lots.split(",")) {
+                if (!part.isBlank()) {
+                    lotIds.add(Long.parseLong(part.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (lotIds.isEmpty() || lotIds.size() > AvailabilityStreamService.MAX_LOTS_PER_STREAM) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(availabilityStreamService.subscribe(lotIds));
+    }
+}
@@ -1,11 +1,13 @@
 package com.parkease.backend.controller;
 
-import com.parkease.backend.dto.BookingHistoryResponse;
+import com.parkease.backend.dto.BookingCursor;
+import com.parkease.backend.dto.BookingHistoryPage;
 import com.parkease.backend.service.BookingHistoryService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/provider/bookings")
@@ -18,8 +20,30 @@ public class BookingHistoryController {
         this.service = service;
     }
 
+    // Keyset-paged on (endTime, id) when cursor or limit is given; the next page's cursor comes back in X-Next-Cursor
     @GetMapping("/history")
-    public List<BookingHistoryResponse> history(Authentication auth) {
-        return service.getHistory(auth.getName());
+    public ResponseEntity<?> history(
+            Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        BookingCursor after;
+        try {
+            after = BookingCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+
+        BookingHistoryPage page = service.getHistory(auth.getName(), after, BookingCursor.limit(cursor, limit));
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            ok.header(BookingCursor.HEADER, page.getNextCursor());
+        }
+        return ok.body(page.getItems());
+    }
+
+    // completed / cancelled counts per lot plus totals over all lots
+    @GetMapping("/history/summary")
+    public Map<String, Object> summary(Authentication auth) {
+        return service.getSummary(auth.getName());
     }
 }
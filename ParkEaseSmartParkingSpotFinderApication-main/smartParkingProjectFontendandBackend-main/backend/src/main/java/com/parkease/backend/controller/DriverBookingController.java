@@ -1,14 +1,24 @@
 package com.parkease.backend.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parkease.backend.dto.BookingCursor;
+import com.parkease.backend.dto.DriverBookingRow;
 import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.UserRepository;
 import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,109 +30,85 @@ public class DriverBookingController {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final com.parkease.backend.service.BookingService bookingService;
-    private final com.parkease.backend.service.PaymentService paymentService;
     private final com.parkease.backend.repository.ParkingLotRepository parkingLotRepository;
-    private final com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository;
     private final com.parkease.backend.repository.PaymentRepository paymentRepository;
+    private final com.parkease.backend.service.SlotAvailabilityIndex slotAvailabilityIndex;
+    private final com.parkease.backend.service.IdempotencyService idempotencyService;
+    private final com.parkease.backend.service.SlotProvisioningService slotProvisioningService;
 
     public DriverBookingController(BookingRepository bookingRepository,
             UserRepository userRepository,
             com.parkease.backend.service.BookingService bookingService,
-            com.parkease.backend.service.PaymentService paymentService,
             com.parkease.backend.repository.ParkingLotRepository parkingLotRepository,
-            com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository,
-            com.parkease.backend.repository.PaymentRepository paymentRepository) {
+            com.parkease.backend.repository.PaymentRepository paymentRepository,
+            com.parkease.backend.service.SlotAvailabilityIndex slotAvailabilityIndex,
+            com.parkease.backend.service.IdempotencyService idempotencyService,
+            com.parkease.backend.service.SlotProvisioningService slotProvisioningService) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.bookingService = bookingService;
-        this.paymentService = paymentService;
         this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
         this.paymentRepository = paymentRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.idempotencyService = idempotencyService;
+        this.slotProvisioningService = slotProvisioningService;
     }
 
+    // Booking lists are streamed straight from projection rows: no entities, no per-row maps
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Both lists are keyset-paged on (startTime, id): ?cursor=<X-Next-Cursor of the previous page>&limit=
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<?> getDriverBookings(
+    public void getDriverBookings(
             @org.springframework.web.bind.annotation.PathVariable Long driverId,
-            @org.springframework.web.bind.annotation.RequestParam(required = false) String status) {
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String status,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String cursor,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) Integer limit,
+            HttpServletResponse response) throws IOException {
+        BookingCursor after;
+        try {
+            after = BookingCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(400);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+        int pageSize = BookingCursor.limit(cursor, limit);
+        Pageable page = BookingCursor.page(pageSize);
+
+        List<DriverBookingRow> rows;
         try {
-            List<Booking> bookings;
             if (status != null && !status.isEmpty()) {
                 try {
                     com.parkease.backend.enumtype.BookingStatus enumStatus = com.parkease.backend.enumtype.BookingStatus
                             .valueOf(status.toUpperCase());
-                    bookings = bookingRepository.findByDriverIdAndStatus(driverId, enumStatus);
+                    rows = bookingRepository.findDriverBookingRowsByStatus(driverId, enumStatus,
+                            after.getTime(), after.getId(), page);
                 } catch (IllegalArgumentException e) {
                     System.out.println("DEBUG: Invalid status '" + status + "', fetching all.");
-                    bookings = bookingRepository.findByDriverIdWithParkingLot(driverId);
+                    rows = bookingRepository.findDriverBookingRows(driverId, after.getTime(), after.getId(), page);
                 }
             } else {
-                bookings = bookingRepository.findByDriverIdWithParkingLot(driverId);
+                rows = bookingRepository.findDriverBookingRows(driverId, after.getTime(), after.getId(), page);
             }
-
-            // 🔥 CRITICAL: Convert to Map to kill LazyInitializationException
-            List<java.util.Map<String, Object>> cleanData = bookings.stream().map(b -> {
-                try {
-                    java.util.Map<String, Object> m = new java.util.HashMap<>();
-                    m.put("id", b.getId());
-                    // Use getParkingLot() and getAddress() as requested
-                    m.put("spotName",
-                            (b.getParkingLot() != null && b.getParkingLot().getAddress() != null)
-                                    ? b.getParkingLot().getAddress()
-                                    : "Parking Spot");
-                    m.put("location",
-                            (b.getParkingLot() != null && b.getParkingLot().getAddress() != null)
-                                    ? b.getParkingLot().getAddress()
-                                    : "");
-                    m.put("name",
-                            (b.getParkingLot() != null && b.getParkingLot().getName() != null)
-                                    ? b.getParkingLot().getName()
-                                    : "Unknown Spot");
-
-                    // Explicit String conversion for dates
-                    m.put("startTime", b.getStartTime() != null ? b.getStartTime().toString() : "");
-                    m.put("endTime", b.getEndTime() != null ? b.getEndTime().toString() : "");
-
-                    m.put("amount", b.getTotalAmount() != null ? b.getTotalAmount() : 0.0);
-                    m.put("totalAmount", b.getTotalAmount() != null ? b.getTotalAmount() : 0.0);
-                    m.put("vehicleNumber", b.getVehicleNumber() != null ? b.getVehicleNumber() : "N/A");
-                    m.put("vehicleNo", b.getVehicleNumber() != null ? b.getVehicleNumber() : "N/A"); // Alias for
-                                                                                                     // frontend
-
-                    // Status normalization
-                    String statusStr = b.getStatus() != null ? b.getStatus().toString() : "UNKNOWN";
-                    if ("CONFIRMED".equalsIgnoreCase(statusStr) || "ACTIVE".equalsIgnoreCase(statusStr)) {
-                        m.put("status", "Active");
-                    } else {
-                        m.put("status", statusStr);
-                    }
-
-                    // Keeping nested objects safely if needed by frontend previously, but flattened
-                    // is safer
-                    if (b.getParkingLot() != null) {
-                        java.util.Map<String, Object> lotMap = new java.util.HashMap<>();
-                        lotMap.put("name", b.getParkingLot().getName());
-                        lotMap.put("location", b.getParkingLot().getAddress());
-                        m.put("parkingLot", lotMap);
-                    }
-
-                    return m;
-                } catch (Exception e) {
-                    System.err.println("Error mapping booking " + b.getId() + ": " + e.getMessage());
-                    return null;
-                }
-            }).filter(java.util.Objects::nonNull).collect(java.util.stream.Collectors.toList());
-
-            System.out.println("Fetching bookings for Driver: " + driverId + " | Found: " + cleanData.size());
-            return ResponseEntity.ok(cleanData);
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.status(500).body("Error fetching bookings: " + e.getMessage());
+            response.setStatus(500);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Error fetching bookings: " + e.getMessage());
+            return;
         }
+
+        System.out.println("Fetching bookings for Driver: " + driverId + " | Found: " + rows.size());
+        writeBookings(rows, pageSize, response);
     }
 
     @GetMapping
-    public ResponseEntity<?> getMyBookings(Authentication auth) {
+    public void getMyBookings(Authentication auth,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String cursor,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) Integer limit,
+            HttpServletResponse response) throws IOException {
         User driver = null;
         if (auth != null) {
             String email = auth.getName();
@@ -135,56 +121,36 @@ public class DriverBookingController {
             throw new RuntimeException("Driver not authenticated");
         }
 
-        // Use the new repository method for consistent sorting and eager loading
-        List<Booking> bookings = bookingRepository.findByDriverIdWithParkingLot(driver.getId());
-
-        // Reuse the same safe mapping logic to avoid LazyInitializationException
-        List<java.util.Map<String, Object>> cleanData = bookings.stream().map(b -> {
-            try {
-                java.util.Map<String, Object> m = new java.util.HashMap<>();
-                m.put("id", b.getId());
-                m.put("spotName",
-                        (b.getParkingLot() != null && b.getParkingLot().getAddress() != null)
-                                ? b.getParkingLot().getAddress()
-                                : "Parking Spot");
-                m.put("location",
-                        (b.getParkingLot() != null && b.getParkingLot().getAddress() != null)
-                                ? b.getParkingLot().getAddress()
-                                : "");
-                m.put("name",
-                        (b.getParkingLot() != null && b.getParkingLot().getName() != null) ? b.getParkingLot().getName()
-                                : "Unknown Spot");
-
-                m.put("startTime", b.getStartTime() != null ? b.getStartTime().toString() : "");
-                m.put("endTime", b.getEndTime() != null ? b.getEndTime().toString() : "");
-
-                m.put("amount", b.getTotalAmount() != null ? b.getTotalAmount() : 0.0);
-                m.put("totalAmount", b.getTotalAmount() != null ? b.getTotalAmount() : 0.0);
-                m.put("vehicleNumber", b.getVehicleNumber() != null ? b.getVehicleNumber() : "N/A");
-                m.put("vehicleNo", b.getVehicleNumber() != null ? b.getVehicleNumber() : "N/A");
-
-                String statusStr = b.getStatus() != null ? b.getStatus().toString() : "UNKNOWN";
-                if ("CONFIRMED".equalsIgnoreCase(statusStr) || "ACTIVE".equalsIgnoreCase(statusStr)) {
-                    m.put("status", "Active");
-                } else {
-                    m.put("status", statusStr);
-                }
-
-                if (b.getParkingLot() != null) {
-                    java.util.Map<String, Object> lotMap = new java.util.HashMap<>();
-                    lotMap.put("name", b.getParkingLot().getName());
-                    lotMap.put("location", b.getParkingLot().getAddress());
-                    m.put("parkingLot", lotMap);
-                }
+        BookingCursor after;
+        try {
+            after = BookingCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(400);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+        int pageSize = BookingCursor.limit(cursor, limit);
+        writeBookings(bookingRepository.findDriverBookingRows(driver.getId(), after.getTime(), after.getId(),
+                BookingCursor.page(pageSize)), pageSize, response);
+    }
 
-                return m;
-            } catch (Exception e) {
-                System.err.println("Error mapping booking " + b.getId() + ": " + e.getMessage());
-                return null;
+    private static void writeBookings(List<DriverBookingRow> rows, int pageSize, HttpServletResponse response)
+            throws IOException {
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            DriverBookingRow last = rows.get(pageSize - 1);
+            response.setHeader(BookingCursor.HEADER, new BookingCursor(last.getStartTime(), last.getId()).encode());
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = JSON.createGenerator(response.getOutputStream())) {
+            json.writeStartArray();
+            for (DriverBookingRow row : rows) {
+                row.writeTo(json);
             }
-        }).filter(java.util.Objects::nonNull).collect(java.util.stream.Collectors.toList());
-
-        return ResponseEntity.ok(cleanData);
+            json.writeEndArray();
+        }
     }
 
     @GetMapping("/spends/today")
@@ -226,7 +192,14 @@ public class DriverBookingController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> payload, Authentication auth) {
+    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> payload,
+            @RequestHeader(value = com.parkease.backend.service.IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication auth) {
+        return idempotencyService.execute(idempotencyKey, principalOf(payload, auth), "POST /api/driver/bookings",
+                payload, () -> placeBooking(payload, auth));
+    }
+
+    private ResponseEntity<?> placeBooking(Map<String, Object> payload, Authentication auth) {
         try {
             System.out.println("DEBUG: Incoming Payload: " + payload);
             User driver = null;
@@ -331,54 +304,22 @@ public class DriverBookingController {
             }
 
             // 2. Check for Overlapping Bookings (The Fix for Double Booking)
-            List<Long> occupiedSlotIds = bookingRepository.findOccupiedSlotIds(lot.getId(), reqStartTime, reqEndTime,
-                    java.util.List.of(com.parkease.backend.enumtype.BookingStatus.ACTIVE));
-            System.out.println("DEBUG: Found occupied slots: " + occupiedSlotIds);
-
-            // Find first available slot in this lot
-            // FIX: If no slots exist in DB for this lot, let's create them on the fly
-            List<com.parkease.backend.entity.ParkingSlot> allSlots = parkingSlotRepository.findByParkingLot(lot);
-            if (allSlots.isEmpty()) {
-                System.out.println("DEBUG: No slots found for Lot ID " + lot.getId() + ". Creating "
-                        + lot.getTotalSlots() + " slots.");
-                for (int i = 1; i <= Math.max(1, lot.getTotalSlots()); i++) {
-                    com.parkease.backend.entity.ParkingSlot newSlot = new com.parkease.backend.entity.ParkingSlot();
-                    newSlot.setParkingLot(lot);
-                    newSlot.setSlotNumber("S-" + lot.getId() + "-" + i);
-                    newSlot.setOccupied(false);
-                    newSlot.setVehicleType(com.parkease.backend.enumtype.VehicleType.CAR);
-                    parkingSlotRepository.save(newSlot);
-                    allSlots.add(newSlot);
-                }
+            // Served from the in-memory availability index instead of scanning the lot.
+            // Lots created before slot provisioning existed may still have no slots.
+            if (slotAvailabilityIndex.slotCount(lot.getId()) == 0) {
+                slotProvisioningService.provisionSlots(lot);
             }
 
-            com.parkease.backend.entity.ParkingSlot slot = allSlots.stream()
-                    .filter(s -> !s.isOccupied()) // Check physical 'current' status flag (if used)
-                    .filter(s -> !occupiedSlotIds.contains(s.getId())) // Check temporal availability (DB overlap)
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("No available slots found for this time range."));
-
             // 3. Create Booking
             Object vNoObj = payload.getOrDefault("vehicle_no", payload.get("vehicleNumber"));
             String vehicleNo = vNoObj != null ? vNoObj.toString() : "UNKNOWN";
 
-            Booking booking = bookingService.startBooking(driver, lot, slot, vehicleNo);
-
-            // Set the parsed times explicitly
-            booking.setStartTime(reqStartTime);
-            booking.setEndTime(reqEndTime);
-
-            // Logic to update actual 'occupied' flag if booking is happening NOW
-            java.time.LocalDateTime now = java.time.LocalDateTime.now();
-            if (reqStartTime.isBefore(now.plusMinutes(5)) && reqEndTime.isAfter(now)) {
-                slot.setOccupied(true);
-                parkingSlotRepository.save(slot);
-            }
-
-            bookingRepository.save(booking);
-
-            // 2. Process Payment (Deductions & Graph Tracking)
-            paymentService.createPayment(booking, totalAmount, totalAmount * 0.1, "WALLET");
+            // Reserves under the lot's lock and retries on concurrent slot updates
+            // and charges the wallet in the same transaction; provider payouts follow via the outbox
+            // picks the slot by the lot's selection strategy among slots that suit the vehicle
+            VehicleType vehicleType = vehicleTypeOf(firstPresent(payload, "vehicleType", "vehicle_type"), driver);
+            Booking booking = bookingService.bookFirstAvailable(driver, lot, vehicleNo, vehicleType,
+                    reqStartTime, reqEndTime, totalAmount, "WALLET");
 
             // Fix: Return simplified map instead of full Entity to avoid LazyInitException
             return ResponseEntity.ok(java.util.Map.of(
@@ -390,4 +331,129 @@ public class DriverBookingController {
         }
     }
 
+    // Fleet customers: reserve many vehicles in one transaction instead of one POST each
+    private static final int MAX_FLEET_SIZE = 200;
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createFleetBooking(@RequestBody Map<String, Object> payload,
+            @RequestHeader(value = com.parkease.backend.service.IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication auth) {
+        return idempotencyService.execute(idempotencyKey, principalOf(payload, auth), "POST /api/driver/bookings/batch",
+                payload, () -> placeFleetBooking(payload, auth));
+    }
+
+    private ResponseEntity<?> placeFleetBooking(Map<String, Object> payload, Authentication auth) {
+        try {
+            // the fleet is always booked and paid for by the authenticated driver
+            User driver = null;
+            if (auth != null) {
+                driver = userRepository.findByEmail(auth.getName()).orElse(null);
+            }
+            if (driver == null) {
+                return ResponseEntity.status(401).body("User not authenticated");
+            }
+
+            Object itemsObj = payload.get("bookings");
+            if (itemsObj == null)
+                itemsObj = payload.get("vehicles");
+            if (!(itemsObj instanceof List<?> rawItems) || rawItems.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("message", "bookings (list) is required."));
+            }
+            if (rawItems.size() > MAX_FLEET_SIZE) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("message", "A fleet booking can hold at most " + MAX_FLEET_SIZE + " vehicles."));
+            }
+
+            java.util.List<com.parkease.backend.dto.FleetBookingItem> items = new java.util.ArrayList<>();
+            double grandTotal = 0;
+            for (Object raw : rawItems) {
+                if (!(raw instanceof Map<?, ?> item)) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Each booking must be an object."));
+                }
+                Object lotIdObj = firstPresent(item, "spot_id", "spotId", "parking_lot_id", "parkingLotId");
+                Object amtObj = firstPresent(item, "total_amount", "amount", "totalAmount");
+                if (lotIdObj == null || amtObj == null) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("message", "Each booking needs spot_id and total_amount."));
+                }
+                Object vNoObj = firstPresent(item, "vehicle_no", "vehicleNumber");
+
+                java.time.LocalDateTime start = parseTime(firstPresent(item, "startTime", "start_time"),
+                        java.time.LocalDateTime.now());
+                java.time.LocalDateTime end = parseTime(firstPresent(item, "endTime", "end_time"),
+                        start.plusHours(1));
+                if (!start.isBefore(end)) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("message", "Start time must be before end time."));
+                }
+
+                double amount;
+                try {
+                    amount = Double.parseDouble(amtObj.toString());
+                } catch (NumberFormatException e) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Invalid total_amount"));
+                }
+                // NaN fails this too
+                if (!(amount > 0)) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("message", "total_amount must be greater than zero."));
+                }
+                grandTotal += amount;
+                items.add(new com.parkease.backend.dto.FleetBookingItem(
+                        Long.parseLong(lotIdObj.toString()),
+                        vNoObj != null ? vNoObj.toString() : "UNKNOWN",
+                        start, end, amount,
+                        vehicleTypeOf(firstPresent(item, "vehicleType", "vehicle_type"), driver)));
+            }
+
+            if (driver.getWalletBalance() < grandTotal) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Insufficient wallet balance"));
+            }
+
+            List<Booking> bookings = bookingService.bookBatch(driver, items, "WALLET");
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "message", bookings.size() + " vehicles booked! ✅",
+                    "bookingIds", bookings.stream().map(Booking::getId).toList(),
+                    "totalAmount", grandTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // Idempotency scope: the authenticated user, or the driver id the payload books for
+    private static String principalOf(Map<String, Object> payload, Authentication auth) {
+        if (auth != null && auth.getName() != null) {
+            return auth.getName();
+        }
+        return "driver:" + firstPresent(payload, "driver_id", "driverId");
+    }
+
+    private static Object firstPresent(Map<?, ?> map, String... keys) {
+        for (String key : keys) {
+            if (map.get(key) != null) {
+                return map.get(key);
+            }
+        }
+        return null;
+    }
+
+    // request's vehicle type, else the one on the driver's profile; null (treated as CAR) if neither parses
+    private static VehicleType vehicleTypeOf(Object requested, User driver) {
+        VehicleType type = requested != null ? VehicleType.fromLabel(requested.toString()) : null;
+        return type != null ? type : VehicleType.fromLabel(driver.getVehicleType());
+    }
+
+    private static java.time.LocalDateTime parseTime(Object value, java.time.LocalDateTime fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return java.time.LocalDateTime.parse(value.toString().replace("Z", ""));
+        } catch (java.time.format.DateTimeParseException e) {
+            System.out.println("DEBUG: Date parsing error in fleet booking: " + e.getMessage());
+            return fallback;
+        }
+    }
 }
@@ -18,6 +18,7 @@ import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.PaymentRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.WalletService;
 
 @RestController
 @RequestMapping("/api/driver/dashboard")
@@ -27,14 +28,17 @@ public class DriverDashboardController {
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
+    private final WalletService walletService;
 
     public DriverDashboardController(UserRepository userRepository, BookingRepository bookingRepository,
             PaymentRepository paymentRepository,
-            com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository) {
+            com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository,
+            WalletService walletService) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
         this.walletTransactionRepository = walletTransactionRepository;
+        this.walletService = walletService;
     }
 
     @GetMapping
@@ -179,17 +183,20 @@ public class DriverDashboardController {
             return ResponseEntity.badRequest().body(Map.of("message", "Amount is required"));
         }
 
-        double amount = Double.parseDouble(payload.get("amount").toString());
-        double currentBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        driver.setWalletBalance(currentBalance + amount);
-        userRepository.save(driver);
+        double amount;
+        try {
+            amount = Double.parseDouble(payload.get("amount").toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid amount format"));
+        }
+        if (amount <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
+        }
 
-        // Record Transaction for Graphs
-        com.parkease.backend.entity.WalletTransaction txt = new com.parkease.backend.entity.WalletTransaction(
-                driver, amount, "CREDIT", "Wallet Top-up");
-        walletTransactionRepository.save(txt);
+        // atomic UPDATE, with the CREDIT row for graphs
+        double newBalance = walletService.credit(driver, amount, "Wallet Top-up");
 
-        return ResponseEntity.ok(Map.of("message", "Success", "newBalance", driver.getWalletBalance()));
+        return ResponseEntity.ok(Map.of("message", "Success", "newBalance", newBalance));
     }
 
     @GetMapping("/transactions")
@@ -1,95 +1,126 @@
 package com.parkease.backend.controller;
 
-import com.parkease.backend.entity.ParkingLot;
-import com.parkease.backend.entity.User;
-import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
+import com.parkease.backend.dto.LotSearchFilter;
+import com.parkease.backend.dto.LotSearchRow;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchSnapshot;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/driver/parking")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class DriverParkingController {
 
-    private final ParkingLotRepository parkingLotRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final LotGeoIndex lotGeoIndex;
 
-    public DriverParkingController(ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository) {
-        this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
+    public DriverParkingController(LotSearchSnapshot lotSearchSnapshot,
+            LotGeoIndex lotGeoIndex) {
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.lotGeoIndex = lotGeoIndex;
     }
 
+    /**
+     * With lat/lng only active lots within radius (meters) come back, at most
+     * k of them, nearest first and with their distance; without them every
+     * lot is listed as before. {@link LotSearchFilter} adds filters (ev,
+     * minPrice, maxPrice, city, minAvailable), sorting and paging on top.
+     */
     @GetMapping({ "/search", "" })
-    public ResponseEntity<?> getActiveProviders() {
+    public ResponseEntity<?> getActiveProviders(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) Integer k,
+            LotSearchFilter filter) {
         System.out.println("DEBUG: Incoming request for /api/driver/parking/search");
+        Map<Long, Double> distances = new HashMap<>();
+        if (lat != null || lng != null) {
+            String invalid = LotGeoIndex.invalidCenter(lat, lng);
+            if (invalid != null) {
+                return ResponseEntity.badRequest().body(Map.of("message", invalid));
+            }
+        }
+        if (filter == null) {
+            filter = new LotSearchFilter();
+        }
+        String invalidFilter = filter.invalid(lat != null);
+        if (invalidFilter != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalidFilter));
+        }
         try {
-            List<ParkingLot> activeLots = parkingLotRepository.findAll();
-            System.out.println("DEBUG: Successfully fetched " + activeLots.size() + " active lots from DB");
-
-            List<Map<String, Object>> response = activeLots.stream()
-                    .filter(lot -> {
-                        boolean valid = lot != null && lot.getProvider() != null && lot.getProvider().isApproved();
-                        if (!valid && lot != null) {
-                            System.out.println(
-                                    "DEBUG: Skipping Lot ID " + lot.getId() + " - Provider not approved or null");
-                        }
-                        return valid;
-                    })
-                    .map(lot -> {
-                        try {
-                            Map<String, Object> map = new HashMap<>();
-                            User provider = lot.getProvider();
-
-                            map.put("id", lot.getId());
-                            map.put("name", (lot.getName() != null) ? lot.getName() : "Unnamed Spot");
-                            map.put("ownerName",
-                                    (provider.getFullName() != null) ? provider.getFullName() : "Unknown Provider");
-                            map.put("location", (lot.getAddress() != null ? lot.getAddress() : "") +
-                                    (lot.getCity() != null ? ", " + lot.getCity() : ""));
-                            map.put("totalSlots", lot.getTotalSlots());
-
-                            // Efficient count via Repository
-                            long occupiedCount = parkingSlotRepository.countByParkingLotAndOccupiedTrue(lot);
+            // served from the in-memory snapshot (lot, owner name, occupied count), no DB access
+            List<LotSearchRow> rows;
+            if (lat != null) {
+                // with filters, take the nearest matching lots rather than filtering the k nearest
+                int limit = LotGeoIndex.k(k);
+                List<LotGeoIndex.Hit> hits = lotGeoIndex.search(lat, lng, LotGeoIndex.radius(radius),
+                        filter.hasFilters() ? LotGeoIndex.MAX_K : limit);
+                hits.forEach(hit -> distances.put(hit.getLotId(), hit.getDistanceMeters()));
+                rows = filter(lotSearchSnapshot.rows(hits.stream().map(LotGeoIndex.Hit::getLotId).toList()),
+                        filter);
+                rows = rows.subList(0, Math.min(limit, rows.size()));
+            } else {
+                rows = filter(lotSearchSnapshot.rows(), filter);
+            }
+            Comparator<LotSearchRow> order = filter.comparator(distances);
+            if (order != null) {
+                rows = new ArrayList<>(rows);
+                rows.sort(order);
+            }
+            int total = rows.size();
+            if (filter.isPaged()) {
+                int from = (int) Math.min((long) filter.pageNumber() * filter.pageSize(), total);
+                rows = rows.subList(from, Math.min(from + filter.pageSize(), total));
+            }
+            System.out.println("DEBUG: Successfully fetched " + total + " matching lots from snapshot");
 
-                            map.put("availableSlots", Math.max(0, lot.getTotalSlots() - (int) occupiedCount));
-                            map.put("type", lot.isEvSupported() ? "EV Hub" : "Standard");
-                            map.put("rating", 4.0 + (Math.random() * 1.0));
-                            map.put("status", (lot.getTotalSlots() - (int) occupiedCount) > 0 ? "available" : "busy");
-                            map.put("price", lot.getBasePrice() != null ? lot.getBasePrice() : 40.0);
+            List<Map<String, Object>> response = new ArrayList<>(rows.size());
+            for (LotSearchRow lot : rows) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", lot.getId());
+                map.put("name", (lot.getName() != null) ? lot.getName() : "Unnamed Spot");
+                map.put("ownerName", (lot.getOwnerName() != null) ? lot.getOwnerName() : "Unknown Provider");
+                map.put("location", (lot.getAddress() != null ? lot.getAddress() : "") +
+                        (lot.getCity() != null ? ", " + lot.getCity() : ""));
+                map.put("totalSlots", lot.getTotalSlots());
+                map.put("availableSlots", lot.getAvailableSlots());
+                map.put("type", lot.isEvSupported() ? "EV Hub" : "Standard");
+                map.put("rating", 4.0 + (Math.random() * 1.0));
+                map.put("status", lot.getAvailableSlots() > 0 ? "available" : "busy");
+                map.put("price", lot.getPrice());
 
-                            Long lotId = lot.getId();
-                            int seed = (lotId != null) ? lotId.intValue() : 0;
+                Long lotId = lot.getId();
+                int seed = (lotId != null) ? lotId.intValue() : 0;
 
-                            // Coordinates: Prefer real latitude/longitude if available
-                            map.put("latitude", lot.getLatitude());
-                            map.put("longitude", lot.getLongitude());
+                // Coordinates: Prefer real latitude/longitude if available
+                map.put("latitude", lot.getLatitude());
+                map.put("longitude", lot.getLongitude());
+                if (distances.containsKey(lotId)) {
+                    map.put("distance", Math.round(distances.get(lotId)));
+                }
 
-                            // Fallback for custom SVG grid "Smart Deck"
-                            map.put("coords",
-                                    Map.of("x", (int) (50 + (seed * 77) % 300), "y", (int) (50 + (seed * 93) % 450)));
-
-                            return map;
-                        } catch (Exception e) {
-                            System.err.println("DEBUG: Error mapping lot record: " + e.getMessage());
-                            return null;
-                        }
-                    })
-                    .filter(java.util.Objects::nonNull)
-                    .collect(Collectors.toList());
+                // Fallback for custom SVG grid "Smart Deck"
+                map.put("coords",
+                        Map.of("x", (int) (50 + (seed * 77) % 300), "y", (int) (50 + (seed * 93) % 450)));
+                response.add(map);
+            }
 
             System.out.println("DEBUG: Returning " + response.size() + " processed parking spots");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .header(LotSearchFilter.TOTAL_HEADER, String.valueOf(total))
+                    .body(response);
         } catch (Exception e) {
             System.err.println("CRITICAL ERROR in DriverParkingController: " + e.getMessage());
             e.printStackTrace();
@@ -99,4 +130,17 @@ public class DriverParkingController {
             return ResponseEntity.status(500).body(error);
         }
     }
+
+    private static List<LotSearchRow> filter(List<LotSearchRow> rows, LotSearchFilter filter) {
+        if (!filter.hasFilters()) {
+            return rows;
+        }
+        List<LotSearchRow> matching = new ArrayList<>();
+        for (LotSearchRow row : rows) {
+            if (filter.matches(row)) {
+                matching.add(row);
+            }
+        }
+        return matching;
+    }
 }
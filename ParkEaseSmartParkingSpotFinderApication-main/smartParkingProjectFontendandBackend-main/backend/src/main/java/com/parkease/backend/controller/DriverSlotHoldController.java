@@ -0,0 +1,197 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.BookingService;
+import com.parkease.backend.service.SlotHoldService;
+import com.parkease.backend.service.SlotHoldService.SlotHold;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-phase booking: hold a slot while the driver reviews/pays, then confirm.
+ * Holds live only in memory until confirmed.
+ */
+@RestController
+@RequestMapping("/api/driver/bookings/holds")
+public class DriverSlotHoldController {
+
+    private final UserRepository userRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final SlotHoldService slotHoldService;
+    private final BookingService bookingService;
+
+    public DriverSlotHoldController(UserRepository userRepository,
+            ParkingLotRepository parkingLotRepository,
+            SlotHoldService slotHoldService,
+            BookingService bookingService) {
+        this.userRepository = userRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.slotHoldService = slotHoldService;
+        this.bookingService = bookingService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> holdSlot(@RequestBody Map<String, Object> payload, Authentication auth) {
+        User driver = currentDriver(auth);
+
+        Object lotIdObj = payload.get("spot_id");
+        if (lotIdObj == null)
+            lotIdObj = payload.get("spotId");
+        if (lotIdObj == null)
+            lotIdObj = payload.get("parkingLotId");
+        if (lotIdObj == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "spot_id (or spotId) is required."));
+        }
+        Long lotId;
+        try {
+            lotId = Long.parseLong(lotIdObj.toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid spot_id"));
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusHours(1);
+        try {
+            Object startObj = payload.get("startTime") != null ? payload.get("startTime") : payload.get("start_time");
+            if (startObj != null) {
+                start = LocalDateTime.parse(startObj.toString().replace("Z", ""));
+                end = start.plusHours(1);
+            }
+            Object endObj = payload.get("endTime") != null ? payload.get("endTime") : payload.get("end_time");
+            if (endObj != null) {
+                end = LocalDateTime.parse(endObj.toString().replace("Z", ""));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid startTime/endTime"));
+        }
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Start time must be before end time."));
+        }
+
+        Duration ttl = null;
+        if (payload.get("ttlSeconds") != null) {
+            try {
+                ttl = Duration.ofSeconds(Long.parseLong(payload.get("ttlSeconds").toString()));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid ttlSeconds"));
+            }
+        }
+
+        Object typeObj = payload.get("vehicleType") != null ? payload.get("vehicleType") : payload.get("vehicle_type");
+        VehicleType vehicleType = VehicleType.fromLabel(typeObj != null ? typeObj.toString() : driver.getVehicleType());
+
+        Optional<SlotHold> held;
+        try {
+            held = slotHoldService.hold(driver.getId(), lotId, start, end, vehicleType, ttl);
+        } catch (SlotHoldService.HoldLimitException e) {
+            return ResponseEntity.status(429).body(Map.of("message", e.getMessage()));
+        }
+        return held
+                .<ResponseEntity<?>>map(hold -> ResponseEntity.ok(toResponse(hold)))
+                .orElseGet(() -> ResponseEntity.status(409)
+                        .body(Map.of("message", "No available slots found for this time range.")));
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId,
+            @RequestBody(required = false) Map<String, Object> payload,
+            Authentication auth) {
+        User driver = currentDriver(auth);
+        Map<String, Object> body = payload != null ? payload : Map.of();
+
+        Object amtObj = body.get("total_amount");
+        if (amtObj == null)
+            amtObj = body.get("amount");
+        if (amtObj == null)
+            amtObj = body.get("totalAmount");
+        if (amtObj == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "total_amount is required."));
+        }
+        double totalAmount;
+        try {
+            totalAmount = Double.parseDouble(amtObj.toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid total_amount"));
+        }
+        // NaN fails this too
+        if (!(totalAmount > 0)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "total_amount must be greater than zero."));
+        }
+        if (driver.getWalletBalance() < totalAmount) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Insufficient wallet balance"));
+        }
+
+        Object vNoObj = body.getOrDefault("vehicle_no", body.get("vehicleNumber"));
+        String vehicleNo = vNoObj != null ? vNoObj.toString() : "UNKNOWN";
+
+        SlotHold hold;
+        try {
+            hold = slotHoldService.take(holdId, driver.getId());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(410).body(Map.of("message", e.getMessage()));
+        }
+
+        ParkingLot lot = parkingLotRepository.findById(hold.getLotId()).orElse(null);
+        if (lot == null) {
+            bookingService.releaseReserved(hold.getLotId(), hold.getSlotId(), hold.getStartTime());
+            slotHoldService.abandoned(hold);
+            return ResponseEntity.status(404).body(Map.of("message", "Parking Lot not found"));
+        }
+
+        Booking booking;
+        try {
+            booking = bookingService.bookReserved(driver, lot, hold.getSlotId(), vehicleNo, hold.getVehicleType(),
+                    hold.getStartTime(), hold.getEndTime(), totalAmount, "WALLET");
+        } catch (RuntimeException e) {
+            // bookReserved has released the slot and handed it on
+            slotHoldService.abandoned(hold);
+            return ResponseEntity.badRequest().body(Map.of("message", String.valueOf(e.getMessage())));
+        }
+        slotHoldService.confirmed(hold);
+
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Booking Confirmed! ✅",
+                "bookingId", booking.getId()));
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId, Authentication auth) {
+        User driver = currentDriver(auth);
+        if (!slotHoldService.cancel(holdId, driver.getId())) {
+            return ResponseEntity.status(404).body(Map.of("message", "Hold not found or already expired"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Hold released"));
+    }
+
+    private User currentDriver(Authentication auth) {
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("Driver not authenticated");
+        }
+        return userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("Driver not found"));
+    }
+
+    private Map<String, Object> toResponse(SlotHold hold) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("holdId", hold.getId());
+        m.put("spotId", hold.getLotId());
+        m.put("slotId", hold.getSlotId());
+        m.put("startTime", hold.getStartTime().toString());
+        m.put("endTime", hold.getEndTime().toString());
+        m.put("expiresAt", hold.getExpiresAt().toString());
+        return m;
+    }
+}
@@ -0,0 +1,130 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.WaitlistService;
+import com.parkease.backend.service.WaitlistService.WaitlistEntry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Waitlist for full lots. When a slot frees up the next driver in line gets
+ * it as a hold (holdId on the entry), confirmed via
+ * POST /api/driver/bookings/holds/{holdId}/confirm.
+ */
+@RestController
+@RequestMapping("/api/driver/bookings/waitlist")
+public class DriverWaitlistController {
+
+    private final UserRepository userRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final WaitlistService waitlistService;
+
+    public DriverWaitlistController(UserRepository userRepository,
+            ParkingLotRepository parkingLotRepository,
+            WaitlistService waitlistService) {
+        this.userRepository = userRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.waitlistService = waitlistService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> join(@RequestBody Map<String, Object> payload, Authentication auth) {
+        User driver = currentDriver(auth);
+
+        Object lotIdObj = payload.get("spot_id");
+        if (lotIdObj == null)
+            lotIdObj = payload.get("spotId");
+        if (lotIdObj == null)
+            lotIdObj = payload.get("parkingLotId");
+        if (lotIdObj == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "spot_id (or spotId) is required."));
+        }
+        Long lotId;
+        try {
+            lotId = Long.parseLong(lotIdObj.toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid spot_id"));
+        }
+        if (!parkingLotRepository.existsById(lotId)) {
+            return ResponseEntity.status(404).body(Map.of("message", "Parking Lot not found"));
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusHours(1);
+        try {
+            Object startObj = payload.get("startTime") != null ? payload.get("startTime") : payload.get("start_time");
+            if (startObj != null) {
+                start = LocalDateTime.parse(startObj.toString().replace("Z", ""));
+                end = start.plusHours(1);
+            }
+            Object endObj = payload.get("endTime") != null ? payload.get("endTime") : payload.get("end_time");
+            if (endObj != null) {
+                end = LocalDateTime.parse(endObj.toString().replace("Z", ""));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid startTime/endTime"));
+        }
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Start time must be before end time."));
+        }
+        if (!end.isAfter(LocalDateTime.now())) {
+            return ResponseEntity.badRequest().body(Map.of("message", "This time range is already over."));
+        }
+
+        Object typeObj = payload.get("vehicleType") != null ? payload.get("vehicleType") : payload.get("vehicle_type");
+        VehicleType vehicleType = VehicleType.fromLabel(typeObj != null ? typeObj.toString() : driver.getVehicleType());
+
+        WaitlistEntry entry = waitlistService.join(driver.getId(), lotId, start, end, vehicleType);
+        return ResponseEntity.status(entry.getState() == WaitlistService.EntryState.OFFERED ? 200 : 202)
+                .body(toResponse(entry));
+    }
+
+    @GetMapping("/{entryId}")
+    public ResponseEntity<?> status(@PathVariable String entryId, Authentication auth) {
+        User driver = currentDriver(auth);
+        return waitlistService.find(entryId, driver.getId())
+                .<ResponseEntity<?>>map(entry -> ResponseEntity.ok(toResponse(entry)))
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("message", "Waitlist entry not found, confirmed or expired")));
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<?> leave(@PathVariable String entryId, Authentication auth) {
+        User driver = currentDriver(auth);
+        if (!waitlistService.leave(entryId, driver.getId())) {
+            return ResponseEntity.status(404).body(Map.of("message", "Waitlist entry not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Left the waitlist"));
+    }
+
+    private User currentDriver(Authentication auth) {
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("Driver not authenticated");
+        }
+        return userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("Driver not found"));
+    }
+
+    private Map<String, Object> toResponse(WaitlistEntry entry) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("entryId", entry.getId());
+        m.put("spotId", entry.getLotId());
+        m.put("startTime", entry.getStartTime().toString());
+        m.put("endTime", entry.getEndTime().toString());
+        m.put("status", entry.getState().name());
+        m.put("position", waitlistService.position(entry));
+        if (entry.getHoldId() != null) {
+            m.put("holdId", entry.getHoldId());
+            m.put("expiresAt", entry.getOfferExpiresAt().toString());
+        }
+        return m;
+    }
+}
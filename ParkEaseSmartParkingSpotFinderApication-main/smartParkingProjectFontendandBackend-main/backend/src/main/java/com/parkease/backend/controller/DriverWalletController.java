@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.*;
 
 import com.parkease.backend.entity.*;
 import com.parkease.backend.repository.*;
+import com.parkease.backend.service.IdempotencyService;
+import com.parkease.backend.service.WalletService;
 
 @RestController
 @RequestMapping("/api/driver/wallet")
@@ -17,11 +19,17 @@ public class DriverWalletController {
 
     private final UserRepository userRepository;
     private final WalletTransactionRepository walletTransactionRepository;
+    private final IdempotencyService idempotencyService;
+    private final WalletService walletService;
 
     public DriverWalletController(UserRepository userRepository,
-            WalletTransactionRepository walletTransactionRepository) {
+            WalletTransactionRepository walletTransactionRepository,
+            IdempotencyService idempotencyService,
+            WalletService walletService) {
         this.userRepository = userRepository;
         this.walletTransactionRepository = walletTransactionRepository;
+        this.idempotencyService = idempotencyService;
+        this.walletService = walletService;
     }
 
     @GetMapping
@@ -36,7 +44,14 @@ public class DriverWalletController {
     }
 
     @PostMapping("/add")
-    public ResponseEntity<?> addMoney(@RequestBody Map<String, Object> payload, Authentication auth) {
+    public ResponseEntity<?> addMoney(@RequestBody Map<String, Object> payload,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication auth) {
+        return idempotencyService.execute(idempotencyKey, auth.getName(), "POST /api/driver/wallet/add", payload,
+                () -> deposit(payload, auth));
+    }
+
+    private ResponseEntity<?> deposit(Map<String, Object> payload, Authentication auth) {
         String email = auth.getName();
         User driver = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -45,22 +60,25 @@ public class DriverWalletController {
             return ResponseEntity.badRequest().body(Map.of("message", "Amount is required"));
         }
 
-        double amount = Double.parseDouble(payload.get("amount").toString());
+        double amount;
+        try {
+            amount = Double.parseDouble(payload.get("amount").toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid amount format"));
+        }
+        if (amount <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
+        }
         String method = payload.getOrDefault("method", "UPI").toString();
         String upiId = payload.getOrDefault("upiId", "N/A").toString();
 
-        double currentBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        driver.setWalletBalance(currentBalance + amount);
-        userRepository.save(driver);
-
-        // Record Transaction
+        // atomic UPDATE + ledger row in one transaction
         String description = "Deposit via " + method + (upiId.equals("N/A") ? "" : " (" + upiId + ")");
-        WalletTransaction txn = new WalletTransaction(driver, amount, "CREDIT", description);
-        walletTransactionRepository.save(txn);
+        double newBalance = walletService.credit(driver, amount, description);
 
         return ResponseEntity.ok(Map.of(
                 "message", "Payment Successful! ₹" + amount + " added.",
-                "newBalance", driver.getWalletBalance()));
+                "newBalance", newBalance));
     }
 
     @GetMapping("/transactions")
@@ -86,7 +104,14 @@ public class DriverWalletController {
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<?> withdrawMoney(@RequestBody Map<String, Object> payload, Authentication auth) {
+    public ResponseEntity<?> withdrawMoney(@RequestBody Map<String, Object> payload,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication auth) {
+        return idempotencyService.execute(idempotencyKey, auth.getName(), "POST /api/driver/wallet/withdraw", payload,
+                () -> withdraw(payload, auth));
+    }
+
+    private ResponseEntity<?> withdraw(Map<String, Object> payload, Authentication auth) {
         String email = auth.getName();
         User driver = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -95,23 +120,25 @@ public class DriverWalletController {
             return ResponseEntity.badRequest().body(Map.of("message", "Amount is required"));
         }
 
-        double amount = Double.parseDouble(payload.get("amount").toString());
+        double amount;
+        try {
+            amount = Double.parseDouble(payload.get("amount").toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid amount format"));
+        }
+        if (amount <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
+        }
         String upiId = payload.getOrDefault("upiId", "").toString();
 
-        double currentBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        if (amount > currentBalance) {
+        // guarded UPDATE: the balance check and the debit are one statement
+        Optional<Double> newBalance = walletService.debit(driver, amount, "Withdrawal to " + upiId);
+        if (newBalance.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("message", "Insufficient balance"));
         }
 
-        driver.setWalletBalance(currentBalance - amount);
-        userRepository.save(driver);
-
-        // Record Transaction
-        WalletTransaction txn = new WalletTransaction(driver, amount, "DEBIT", "Withdrawal to " + upiId);
-        walletTransactionRepository.save(txn);
-
         return ResponseEntity.ok(Map.of(
                 "message", "Withdrawal successful",
-                "newBalance", driver.getWalletBalance()));
+                "newBalance", newBalance.get()));
     }
 }
@@ -2,8 +2,11 @@ package com.parkease.backend.controller;
 
 import com.parkease.backend.dto.LiveStatusResponse;
 import com.parkease.backend.service.LiveStatusService;
+import com.parkease.backend.service.LiveStatusStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/provider/live-status")
@@ -11,13 +14,21 @@ import org.springframework.web.bind.annotation.*;
 public class LiveStatusController {
 
     private final LiveStatusService service;
+    private final LiveStatusStreamService streamService;
 
-    public LiveStatusController(LiveStatusService service) {
+    public LiveStatusController(LiveStatusService service, LiveStatusStreamService streamService) {
         this.service = service;
+        this.streamService = streamService;
     }
 
     @GetMapping
     public LiveStatusResponse getLiveStatus(Authentication auth) {
         return service.getLiveStatus(auth.getName());
     }
+
+    // snapshot first, then check-in / exiting / checkout deltas and time-left ticks
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveStatus(Authentication auth) {
+        return streamService.subscribe(auth.getName());
+    }
 }
@@ -0,0 +1,107 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.dto.OccupancyPoint;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.service.OccupancyHistoryRecorder;
+import com.parkease.backend.service.OccupancyRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/provider/occupancy/history")
+@CrossOrigin
+public class OccupancyHistoryController {
+
+    private static final int MAX_POINTS = 2000;
+    // auto step: the finest of these giving at most DEFAULT_POINTS buckets
+    private static final int[] STEPS = { 1, 5, 15, 30, 60, 180, 360, 1440 };
+    private static final int DEFAULT_POINTS = 500;
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final OccupancyHistoryRecorder recorder;
+    private final OccupancyRegistry occupancyRegistry;
+
+    public OccupancyHistoryController(
+            ParkingLotRepository parkingLotRepository,
+            OccupancyHistoryRecorder recorder,
+            OccupancyRegistry occupancyRegistry) {
+        this.parkingLotRepository = parkingLotRepository;
+        this.recorder = recorder;
+        this.occupancyRegistry = occupancyRegistry;
+    }
+
+    // ?lotId=&from=&to=&step= (ISO date-times, step in minutes); defaults to the last 24 hours
+    @GetMapping
+    public ResponseEntity<?> history(
+            Authentication auth,
+            @RequestParam(required = false) Long lotId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer step) {
+
+        if (lotId == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "lotId is required"));
+        }
+        ParkingLot lot = parkingLotRepository.findById(lotId).orElse(null);
+        if (lot == null) {
+            return ResponseEntity.status(404).body(Map.of("message", "Parking lot not found"));
+        }
+        if (lot.getProvider() == null || !auth.getName().equals(lot.getProvider().getEmail())) {
+            return ResponseEntity.status(403).body(Map.of("message", "Not your parking lot"));
+        }
+
+        LocalDateTime end;
+        LocalDateTime start;
+        try {
+            end = to != null ? LocalDateTime.parse(to) : LocalDateTime.now().plusMinutes(1);
+            start = from != null ? LocalDateTime.parse(from) : end.minusDays(1);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from / to must be ISO date-times"));
+        }
+        start = start.truncatedTo(ChronoUnit.MINUTES);
+        end = end.truncatedTo(ChronoUnit.MINUTES);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from must be before to"));
+        }
+        long minutes = Duration.between(start, end).toMinutes();
+        if (minutes > OccupancyHistoryRecorder.MAX_RANGE_DAYS * (long) OccupancyHistoryRecorder.MINUTES_PER_DAY) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "Range is limited to " + OccupancyHistoryRecorder.MAX_RANGE_DAYS + " days"));
+        }
+
+        int bucket = step != null ? step : autoStep(minutes);
+        if (bucket < 1 || (minutes + bucket - 1) / bucket > MAX_POINTS) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "step must be at least 1 and give at most " + MAX_POINTS + " points"));
+        }
+
+        List<OccupancyPoint> points = recorder.range(lotId, start, end, bucket);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("lotId", lotId);
+        response.put("name", lot.getName());
+        response.put("slots", occupancyRegistry.slots(lotId));
+        response.put("step", bucket);
+        response.put("points", points);
+        return ResponseEntity.ok(response);
+    }
+
+    private static int autoStep(long minutes) {
+        for (int candidate : STEPS) {
+            if (minutes / candidate <= DEFAULT_POINTS) {
+                return candidate;
+            }
+        }
+        return STEPS[STEPS.length - 1];
+    }
+}
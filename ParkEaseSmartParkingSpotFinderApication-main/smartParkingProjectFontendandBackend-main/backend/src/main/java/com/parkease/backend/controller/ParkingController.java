@@ -1,14 +1,22 @@
 package com.parkease.backend.controller;
 
+import com.parkease.backend.dto.LotSearchRow;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchSnapshot;
+import com.parkease.backend.service.LotTextIndex;
+import com.parkease.backend.service.OccupancyForecaster;
+import com.parkease.backend.service.OccupancyRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,19 +28,93 @@ import java.util.stream.Collectors;
 public class ParkingController {
 
     private final ParkingLotRepository parkingLotRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
+    private final OccupancyRegistry occupancyRegistry;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotTextIndex lotTextIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final OccupancyForecaster occupancyForecaster;
 
     public ParkingController(ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository) {
+            OccupancyRegistry occupancyRegistry,
+            LotGeoIndex lotGeoIndex,
+            LotTextIndex lotTextIndex,
+            LotSearchSnapshot lotSearchSnapshot,
+            OccupancyForecaster occupancyForecaster) {
         this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
+        this.occupancyRegistry = occupancyRegistry;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotTextIndex = lotTextIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.occupancyForecaster = occupancyForecaster;
     }
 
+    // predicted occupancy / availability for the next 24 hours, served from memory
+    @GetMapping("/{lotId}/forecast")
+    public ResponseEntity<?> forecast(@PathVariable Long lotId) {
+        if (!occupancyRegistry.lotIds().contains(lotId)) {
+            return ResponseEntity.status(404).body(Map.of("message", "Parking lot not found"));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("lotId", lotId);
+        response.put("totalSlots", occupancyRegistry.slots(lotId));
+        response.put("hours", occupancyForecaster.forecast(lotId));
+        return ResponseEntity.ok(response);
+    }
+
+    // name / address / city search for the autocomplete box; every word may be a prefix
+    @GetMapping("/search")
+    public ResponseEntity<?> searchByText(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "q is required"));
+        }
+        // index and snapshot are both in memory, no DB access
+        List<LotSearchRow> rows = lotSearchSnapshot.rows(lotTextIndex.search(q, LotTextIndex.limit(limit)));
+        List<Map<String, Object>> response = new ArrayList<>(rows.size());
+        for (LotSearchRow lot : rows) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", lot.getId());
+            map.put("_id", lot.getId());
+            map.put("name", lot.getName() != null ? lot.getName() : "Unnamed Spot");
+            map.put("address", lot.getAddress());
+            map.put("city", lot.getCity());
+            map.put("price", lot.getPrice());
+            map.put("latitude", lot.getLatitude());
+            map.put("longitude", lot.getLongitude());
+            map.put("availableSlots", lot.getAvailableSlots());
+            map.put("totalSlots", lot.getTotalSlots());
+            map.put("status", lot.getAvailableSlots() > 0 ? "available" : "busy");
+            response.add(map);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // lat/lng (+ radius in meters, k) narrows the list to the nearest active lots
     @GetMapping("/all")
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<?> getAllSpots() {
+    public ResponseEntity<?> getAllSpots(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) Integer k) {
+        Map<Long, Double> distances = new HashMap<>();
+        if (lat != null || lng != null) {
+            String invalid = LotGeoIndex.invalidCenter(lat, lng);
+            if (invalid != null) {
+                return ResponseEntity.badRequest().body(Map.of("message", invalid));
+            }
+        }
         try {
-            List<ParkingLot> allLots = parkingLotRepository.findAll();
+            List<ParkingLot> allLots;
+            if (lat != null) {
+                List<LotGeoIndex.Hit> hits = lotGeoIndex.search(lat, lng, LotGeoIndex.radius(radius),
+                        LotGeoIndex.k(k));
+                hits.forEach(hit -> distances.put(hit.getLotId(), hit.getDistanceMeters()));
+                allLots = nearbyLots(hits);
+            } else {
+                allLots = parkingLotRepository.findAll();
+            }
 
             List<Map<String, Object>> response = allLots.stream()
                     .filter(lot -> lot != null && lot.getProvider() != null && lot.getProvider().isApproved())
@@ -47,9 +129,12 @@ public class ParkingController {
                                 : (lot.getBasePrice() != null ? lot.getBasePrice() : 40.0));
                         map.put("latitude", lot.getLatitude());
                         map.put("longitude", lot.getLongitude());
+                        if (distances.containsKey(lot.getId())) {
+                            map.put("distance", Math.round(distances.get(lot.getId())));
+                        }
                         map.put("status", lot.isActive() ? "available" : "busy");
 
-                        long occupiedCount = parkingSlotRepository.countByParkingLotAndOccupiedTrue(lot);
+                        long occupiedCount = occupancyRegistry.occupied(lot.getId());
                         map.put("availableSlots", Math.max(0, lot.getTotalSlots() - (int) occupiedCount));
                         map.put("totalSlots", lot.getTotalSlots());
                         map.put("type", lot.isEvSupported() ? "EV Hub" : "Standard");
@@ -71,4 +156,19 @@ public class ParkingController {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
+
+    // lots of the hits, nearest first
+    private List<ParkingLot> nearbyLots(List<LotGeoIndex.Hit> hits) {
+        Map<Long, ParkingLot> byId = new HashMap<>();
+        parkingLotRepository.findAllById(hits.stream().map(LotGeoIndex.Hit::getLotId).toList())
+                .forEach(lot -> byId.put(lot.getId(), lot));
+        List<ParkingLot> lots = new ArrayList<>(hits.size());
+        for (LotGeoIndex.Hit hit : hits) {
+            ParkingLot lot = byId.get(hit.getLotId());
+            if (lot != null) {
+                lots.add(lot);
+            }
+        }
+        return lots;
+    }
 }
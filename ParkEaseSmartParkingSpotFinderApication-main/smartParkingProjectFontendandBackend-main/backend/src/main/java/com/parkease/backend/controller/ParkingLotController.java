@@ -2,9 +2,15 @@ package com.parkease.backend.controller;
 
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.service.AvailabilityCalendarService;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchSnapshot;
+import com.parkease.backend.service.OccupancyRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -16,9 +22,41 @@ import java.util.stream.Collectors;
 public class ParkingLotController {
 
     private final ParkingLotRepository parkingLotRepository;
-
-    public ParkingLotController(ParkingLotRepository parkingLotRepository) {
+    private final AvailabilityCalendarService availabilityCalendarService;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final OccupancyRegistry occupancyRegistry;
+
+    public ParkingLotController(ParkingLotRepository parkingLotRepository,
+            AvailabilityCalendarService availabilityCalendarService,
+            LotGeoIndex lotGeoIndex,
+            LotSearchSnapshot lotSearchSnapshot,
+            OccupancyRegistry occupancyRegistry) {
         this.parkingLotRepository = parkingLotRepository;
+        this.availabilityCalendarService = availabilityCalendarService;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.occupancyRegistry = occupancyRegistry;
+    }
+
+    // Free-slot counts per 15-minute bucket for one day (defaults to today)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable Long id,
+            @RequestParam(required = false) String date) {
+        LocalDate day;
+        try {
+            day = date == null || date.isBlank() ? LocalDate.now() : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "date must be yyyy-MM-dd"));
+        }
+        if (!parkingLotRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(availabilityCalendarService.getDay(id, day));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Availability Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/provider/{providerId}/spaces")
@@ -139,6 +177,7 @@ public class ParkingLotController {
                 active = status.get("isAvailable");
             spot.setActive(active != null ? active : !spot.isActive());
             parkingLotRepository.save(spot);
+            lotGeoIndex.refresh(id);
             System.out.println("🔄 TERMINAL: Spot ID " + id + " Toggle: " + (spot.isActive() ? "ON" : "OFF"));
             return ResponseEntity.ok(Map.of("message", "Status Updated", "active", spot.isActive()));
         }).orElse(ResponseEntity.notFound().build());
@@ -148,6 +187,9 @@ public class ParkingLotController {
     public ResponseEntity<?> removeSpot(@PathVariable Long id) {
         try {
             parkingLotRepository.deleteById(id);
+            lotGeoIndex.refresh(id);
+            lotSearchSnapshot.refresh(id);
+            occupancyRegistry.lotRemoved(id);
             System.out.println("❌ TERMINAL: Removed Spot ID: " + id);
             return ResponseEntity.ok(Map.of("message", "Removed Success"));
         } catch (Exception e) {
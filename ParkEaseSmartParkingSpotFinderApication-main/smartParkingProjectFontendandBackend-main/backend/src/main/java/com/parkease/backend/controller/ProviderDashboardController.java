@@ -20,6 +20,8 @@ import org.springframework.data.domain.PageRequest;
 import com.parkease.backend.entity.Payment;
 import com.parkease.backend.entity.Withdrawal;
 import com.parkease.backend.repository.WithdrawalRepository;
+import com.parkease.backend.service.OccupancyRegistry;
+import com.parkease.backend.service.WalletService;
 
 @RestController
 @RequestMapping("/api/provider")
@@ -33,6 +35,8 @@ public class ProviderDashboardController {
         private final WithdrawalRepository withdrawalRepository;
         private final WalletTransactionRepository walletTransactionRepository;
         private final com.parkease.backend.repository.ReviewRepository reviewRepository;
+        private final OccupancyRegistry occupancyRegistry;
+        private final WalletService walletService;
 
         public ProviderDashboardController(
                         UserRepository userRepository,
@@ -41,7 +45,9 @@ public class ProviderDashboardController {
                         ParkingLotRepository parkingLotRepository,
                         WithdrawalRepository withdrawalRepository,
                         WalletTransactionRepository walletTransactionRepository,
-                        com.parkease.backend.repository.ReviewRepository reviewRepository) {
+                        com.parkease.backend.repository.ReviewRepository reviewRepository,
+                        OccupancyRegistry occupancyRegistry,
+                        WalletService walletService) {
                 this.userRepository = userRepository;
                 this.bookingRepository = bookingRepository;
                 this.paymentRepository = paymentRepository;
@@ -49,6 +55,8 @@ public class ProviderDashboardController {
                 this.withdrawalRepository = withdrawalRepository;
                 this.walletTransactionRepository = walletTransactionRepository;
                 this.reviewRepository = reviewRepository;
+                this.occupancyRegistry = occupancyRegistry;
+                this.walletService = walletService;
         }
 
         /*
@@ -253,7 +261,8 @@ public class ProviderDashboardController {
                 User provider = userRepository.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-                long activeCars = bookingRepository.countActiveBookingsByProvider(provider.getId());
+                // occupied slots across the provider's lots, from the in-memory registry
+                long activeCars = occupancyRegistry.occupiedByProvider(provider.getId());
                 int totalSlots = parkingLotRepository.sumTotalSlotsByProvider(provider.getId());
                 long occupancyRate = (totalSlots > 0) ? (activeCars * 100) / totalSlots : 0;
 
@@ -632,11 +641,11 @@ public class ProviderDashboardController {
                         return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
                 }
 
-                provider.setWalletBalance(provider.getWalletBalance() + amount);
-                userRepository.save(provider);
+                // atomic UPDATE, so an outbox earnings credit landing meanwhile is kept
+                double newBalance = walletService.credit(provider, amount, null);
 
                 return ResponseEntity.ok(Map.of(
                                 "message", "Money added successfully",
-                                "newWalletBalance", provider.getWalletBalance()));
+                                "newWalletBalance", newBalance));
         }
 }
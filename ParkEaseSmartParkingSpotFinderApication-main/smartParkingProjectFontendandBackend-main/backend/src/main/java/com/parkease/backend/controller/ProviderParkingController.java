@@ -4,6 +4,12 @@ import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchSnapshot;
+import com.parkease.backend.service.OccupancyRegistry;
+import com.parkease.backend.service.SlotAvailabilityIndex;
+import com.parkease.backend.service.SlotProvisioningService;
+import com.parkease.backend.service.SlotSelectionStrategies;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -21,10 +27,28 @@ public class ProviderParkingController {
 
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
-
-    public ProviderParkingController(UserRepository userRepository, ParkingLotRepository parkingLotRepository) {
+    private final SlotProvisioningService slotProvisioningService;
+    private final SlotSelectionStrategies slotSelectionStrategies;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final OccupancyRegistry occupancyRegistry;
+
+    public ProviderParkingController(UserRepository userRepository, ParkingLotRepository parkingLotRepository,
+            SlotProvisioningService slotProvisioningService,
+            SlotSelectionStrategies slotSelectionStrategies,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            LotGeoIndex lotGeoIndex,
+            LotSearchSnapshot lotSearchSnapshot,
+            OccupancyRegistry occupancyRegistry) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
+        this.slotProvisioningService = slotProvisioningService;
+        this.slotSelectionStrategies = slotSelectionStrategies;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.occupancyRegistry = occupancyRegistry;
     }
 
     /**
@@ -106,6 +130,11 @@ public class ProviderParkingController {
         lot.setActive(true);
 
         parkingLotRepository.save(lot);
+        lotGeoIndex.refresh(lot.getId());
+
+        // Create the lot's slots now (bulk insert) instead of on the first driver booking
+        slotProvisioningService.provisionSlots(lot);
+        lotSearchSnapshot.refresh(lot.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -157,7 +186,28 @@ public class ProviderParkingController {
             if (payload.containsKey("name")) {
                 lot.setName(String.valueOf(payload.get("name")));
             }
+            if (payload.containsKey("address")) {
+                lot.setAddress(String.valueOf(payload.get("address")));
+            }
+            if (payload.containsKey("city")) {
+                lot.setCity(String.valueOf(payload.get("city")));
+            }
+            boolean selectionChanged = false;
+            if (payload.containsKey("slotSelection")) {
+                Object selection = payload.get("slotSelection");
+                if (selection != null && !slotSelectionStrategies.exists(selection.toString())) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                            "message", "slotSelection must be one of " + slotSelectionStrategies.names()));
+                }
+                lot.setSlotSelection(selection != null ? selection.toString().trim().toLowerCase() : null);
+                selectionChanged = true;
+            }
             parkingLotRepository.save(lot);
+            lotSearchSnapshot.refresh(lot.getId());
+            if (selectionChanged) {
+                // pools are ordered by the strategy, so rebuild the lot on next use
+                slotAvailabilityIndex.invalidate(lot.getId());
+            }
             return ResponseEntity.ok(Map.of("message", "Space updated successfully"));
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -168,6 +218,7 @@ public class ProviderParkingController {
             Boolean isActive = (Boolean) payload.get("isActive");
             lot.setActive(isActive != null ? isActive : !lot.isActive());
             parkingLotRepository.save(lot);
+            lotGeoIndex.refresh(id);
             return ResponseEntity.ok(Map.of("message", "Status updated", "isActive", lot.isActive()));
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -176,6 +227,9 @@ public class ProviderParkingController {
     public ResponseEntity<?> deleteSpace(@PathVariable Long id) {
         try {
             parkingLotRepository.deleteById(id);
+            lotGeoIndex.refresh(id);
+            lotSearchSnapshot.refresh(id);
+            occupancyRegistry.lotRemoved(id);
             return ResponseEntity.ok(Map.of("message", "Space removed successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Deletion error: " + e.getMessage());
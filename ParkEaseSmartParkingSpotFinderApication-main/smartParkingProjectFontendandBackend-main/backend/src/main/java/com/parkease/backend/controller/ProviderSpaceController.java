@@ -8,7 +8,11 @@ import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.ParkingSlotRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.LotSearchSnapshot;
+import com.parkease.backend.service.OccupancyRegistry;
+import com.parkease.backend.service.SlotAvailabilityIndex;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -23,12 +27,19 @@ public class ProviderSpaceController {
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final OccupancyRegistry occupancyRegistry;
 
     public ProviderSpaceController(UserRepository userRepository, ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository) {
+            ParkingSlotRepository parkingSlotRepository, SlotAvailabilityIndex slotAvailabilityIndex,
+            LotSearchSnapshot lotSearchSnapshot, OccupancyRegistry occupancyRegistry) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.occupancyRegistry = occupancyRegistry;
     }
 
     private ParkingLot getOrCreateMainLot(User provider) {
@@ -121,11 +132,14 @@ public class ProviderSpaceController {
         }
 
         parkingSlotRepository.save(slot);
+        slotAvailabilityIndex.invalidate(lot.getId());
+        occupancyRegistry.slotsAdded(lot, 1);
 
         // Update lot totals
         long count = parkingSlotRepository.countByParkingLot(lot);
         lot.setTotalSlots((int) count);
         parkingLotRepository.save(lot);
+        lotSearchSnapshot.refresh(lot.getId());
 
         return ResponseEntity.ok(Map.of("message", "Slot added successfully", "slotCode", slotCode));
     }
@@ -141,7 +155,14 @@ public class ProviderSpaceController {
             slot.setStatus(SlotStatus.AVAILABLE);
         }
 
-        parkingSlotRepository.save(slot);
+        try {
+            parkingSlotRepository.save(slot);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // a booking touched this slot in the meantime; don't overwrite its occupancy
+            return ResponseEntity.status(409).body(Map.of("message", "Slot was updated by a booking, please retry"));
+        }
+        // inactive slots are never offered for booking
+        slotAvailabilityIndex.invalidate(slot.getParkingLot().getId());
         return ResponseEntity.ok(Map.of("message", "Slot toggled", "status", slot.getStatus()));
     }
 
@@ -152,11 +173,14 @@ public class ProviderSpaceController {
 
         ParkingLot lot = slot.getParkingLot();
         parkingSlotRepository.delete(slot);
+        slotAvailabilityIndex.invalidate(lot.getId());
+        occupancyRegistry.slotRemoved(lot.getId(), slot.isOccupied());
 
         // Update lot totals
         long count = parkingSlotRepository.countByParkingLot(lot);
         lot.setTotalSlots((int) count);
         parkingLotRepository.save(lot);
+        lotSearchSnapshot.refresh(lot.getId());
 
         return ResponseEntity.ok(Map.of("message", "Slot deleted"));
     }
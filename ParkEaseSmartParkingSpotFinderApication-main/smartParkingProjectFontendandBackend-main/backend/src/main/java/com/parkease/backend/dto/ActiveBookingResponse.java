@@ -3,6 +3,8 @@ package com.parkease.backend.dto;
 public class ActiveBookingResponse {
 
     private Long id;
+    private Long lotId;
+    private String lot;
     private String user;
     private String vehicle;
     private String slot;
@@ -12,6 +14,8 @@ public class ActiveBookingResponse {
 
     public ActiveBookingResponse(
             Long id,
+            Long lotId,
+            String lot,
             String user,
             String vehicle,
             String slot,
@@ -20,6 +24,8 @@ public class ActiveBookingResponse {
             String status
     ) {
         this.id = id;
+        this.lotId = lotId;
+        this.lot = lot;
         this.user = user;
         this.vehicle = vehicle;
         this.slot = slot;
@@ -29,6 +35,8 @@ public class ActiveBookingResponse {
     }
 
     public Long getId() { return id; }
+    public Long getLotId() { return lotId; }
+    public String getLot() { return lot; }
     public String getUser() { return user; }
     public String getVehicle() { return vehicle; }
     public String getSlot() { return slot; }
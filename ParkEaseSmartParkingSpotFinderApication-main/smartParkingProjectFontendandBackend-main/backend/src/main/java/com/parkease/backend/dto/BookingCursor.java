@@ -0,0 +1,82 @@
+package com.parkease.backend.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a booking list ordered by (time DESC, id DESC), where
+ * time is startTime or endTime depending on the list. The next page is every
+ * row strictly after this position, so page N is read straight off the
+ * composite index instead of skipping N * limit rows.
+ *
+ * Sent to clients as an opaque URL-safe token.
+ */
+public class BookingCursor {
+
+    /** Response header carrying the next page's cursor; absent on the last page. */
+    public static final String HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    // page size of a request that asked for neither cursor nor limit: the whole list, as before paging
+    public static final int UNPAGED = Integer.MAX_VALUE;
+
+    // sorts before every real row, so "no cursor" needs no separate query
+    public static final BookingCursor FIRST =
+            new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public BookingCursor(LocalDateTime time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public LocalDateTime getTime() { return time; }
+    public Long getId() { return id; }
+
+    /** Decodes a token from {@link #encode()}; null or blank means the first page. */
+    public static BookingCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /** Page size for a request; {@link #UNPAGED} when it passed neither a cursor nor a limit. */
+    public static int limit(String cursor, Integer requested) {
+        if ((cursor == null || cursor.isBlank()) && requested == null) {
+            return UNPAGED;
+        }
+        return limit(requested);
+    }
+
+    /** Rows to fetch for a page: one extra tells whether another page follows. */
+    public static Pageable page(int limit) {
+        return limit == UNPAGED ? Pageable.unpaged() : PageRequest.of(0, limit + 1);
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    public String encode() {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
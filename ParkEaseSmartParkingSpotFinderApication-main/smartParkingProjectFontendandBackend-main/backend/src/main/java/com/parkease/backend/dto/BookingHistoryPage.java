@@ -0,0 +1,17 @@
+package com.parkease.backend.dto;
+
+import java.util.List;
+
+public class BookingHistoryPage {
+
+    private final List<BookingHistoryResponse> items;
+    private final String nextCursor;
+
+    public BookingHistoryPage(List<BookingHistoryResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookingHistoryResponse> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -3,6 +3,8 @@ package com.parkease.backend.dto;
 public class BookingHistoryResponse {
 
     private Long id;
+    private Long lotId;
+    private String lot;
     private String user;
     private String vehicle;
     private String slot;
@@ -13,6 +15,8 @@ public class BookingHistoryResponse {
 
     public BookingHistoryResponse(
             Long id,
+            Long lotId,
+            String lot,
             String user,
             String vehicle,
             String slot,
@@ -22,6 +26,8 @@ public class BookingHistoryResponse {
             String date
     ) {
         this.id = id;
+        this.lotId = lotId;
+        this.lot = lot;
         this.user = user;
         this.vehicle = vehicle;
         this.slot = slot;
@@ -32,6 +38,8 @@ public class BookingHistoryResponse {
     }
 
     public Long getId() { return id; }
+    public Long getLotId() { return lotId; }
+    public String getLot() { return lot; }
     public String getUser() { return user; }
     public String getVehicle() { return vehicle; }
     public String getSlot() { return slot; }
@@ -0,0 +1,147 @@
+package com.parkease.backend.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parkease.backend.enumtype.BookingStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a driver's booking list, filled by a JPQL constructor expression
+ * so only these columns are read (no Booking / ParkingLot entities).
+ */
+public class DriverBookingRow {
+
+    private final Long id;
+    private final Long lotId;
+    private final String lotName;
+    private final String lotAddress;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final Double totalAmount;
+    private final String vehicleNumber;
+    private final BookingStatus status;
+
+    public DriverBookingRow(
+            Long id,
+            Long lotId,
+            String lotName,
+            String lotAddress,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Double totalAmount,
+            String vehicleNumber,
+            BookingStatus status
+    ) {
+        this.id = id;
+        this.lotId = lotId;
+        this.lotName = lotName;
+        this.lotAddress = lotAddress;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.totalAmount = totalAmount;
+        this.vehicleNumber = vehicleNumber;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public Long getLotId() { return lotId; }
+    public String getLotName() { return lotName; }
+    public String getLotAddress() { return lotAddress; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public Double getTotalAmount() { return totalAmount; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public BookingStatus getStatus() { return status; }
+
+    /**
+     * Writes the row in the shape the driver apps already read, including the
+     * legacy alias keys (amount/totalAmount, vehicleNumber/vehicleNo).
+     */
+    public void writeTo(JsonGenerator json) throws IOException {
+        double amount = totalAmount != null ? totalAmount : 0.0;
+        String vehicle = vehicleNumber != null ? vehicleNumber : "N/A";
+
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("spotName", lotAddress != null ? lotAddress : "Parking Spot");
+        json.writeStringField("location", lotAddress != null ? lotAddress : "");
+        json.writeStringField("name", lotName != null ? lotName : "Unknown Spot");
+        char[] buf = new char[MAX_DATE_TIME_CHARS];
+        writeDateTime(json, "startTime", startTime, buf);
+        writeDateTime(json, "endTime", endTime, buf);
+        json.writeNumberField("amount", amount);
+        json.writeNumberField("totalAmount", amount);
+        json.writeStringField("vehicleNumber", vehicle);
+        json.writeStringField("vehicleNo", vehicle);
+        json.writeStringField("status", status == null ? "UNKNOWN"
+                : status == BookingStatus.ACTIVE ? "Active" : status.name());
+        if (lotId != null) {
+            json.writeObjectFieldStart("parkingLot");
+            json.writeStringField("name", lotName);
+            json.writeStringField("location", lotAddress);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    /* ================= DATE FORMATTING ================= */
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_DATE_TIME_CHARS = 29;
+
+    /**
+     * Same text as LocalDateTime.toString(), written from a reused buffer:
+     * toString() goes through StringBuilder and was the largest per-row
+     * allocation in the list.
+     */
+    private static void writeDateTime(JsonGenerator json, String field, LocalDateTime t, char[] buf)
+            throws IOException {
+        json.writeFieldName(field);
+        if (t == null) {
+            json.writeString("");
+            return;
+        }
+        if (t.getYear() < 1000 || t.getYear() > 9999) {
+            json.writeString(t.toString());
+            return;
+        }
+
+        int len = 0;
+        len = digits(buf, len, t.getYear(), 4);
+        buf[len++] = '-';
+        len = digits(buf, len, t.getMonthValue(), 2);
+        buf[len++] = '-';
+        len = digits(buf, len, t.getDayOfMonth(), 2);
+        buf[len++] = 'T';
+        len = digits(buf, len, t.getHour(), 2);
+        buf[len++] = ':';
+        len = digits(buf, len, t.getMinute(), 2);
+
+        int second = t.getSecond();
+        int nano = t.getNano();
+        if (second > 0 || nano > 0) {
+            buf[len++] = ':';
+            len = digits(buf, len, second, 2);
+            if (nano > 0) {
+                buf[len++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    len = digits(buf, len, nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    len = digits(buf, len, nano / 1000, 6);
+                } else {
+                    len = digits(buf, len, nano, 9);
+                }
+            }
+        }
+        json.writeString(buf, 0, len);
+    }
+
+    private static int digits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
@@ -0,0 +1,38 @@
+package com.parkease.backend.dto;
+
+import com.parkease.backend.enumtype.VehicleType;
+
+import java.time.LocalDateTime;
+
+public class FleetBookingItem {
+
+    private Long lotId;
+    private String vehicleNumber;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private double amount;
+    private VehicleType vehicleType;
+
+    public FleetBookingItem(
+            Long lotId,
+            String vehicleNumber,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            double amount,
+            VehicleType vehicleType
+    ) {
+        this.lotId = lotId;
+        this.vehicleNumber = vehicleNumber;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.amount = amount;
+        this.vehicleType = vehicleType;
+    }
+
+    public Long getLotId() { return lotId; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public double getAmount() { return amount; }
+    public VehicleType getVehicleType() { return vehicleType; }
+}
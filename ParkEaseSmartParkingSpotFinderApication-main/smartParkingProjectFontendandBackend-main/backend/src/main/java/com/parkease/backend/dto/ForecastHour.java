@@ -0,0 +1,27 @@
+package com.parkease.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicted occupancy for the hour starting at {@code time}: expected
+ * occupied slots (average over the hour) and what that leaves available.
+ */
+public class ForecastHour {
+
+    private final LocalDateTime time;
+    private final double occupied;
+    private final long available;
+    private final int occupancyRate;
+
+    public ForecastHour(LocalDateTime time, double occupied, long available, int occupancyRate) {
+        this.time = time;
+        this.occupied = occupied;
+        this.available = available;
+        this.occupancyRate = occupancyRate;
+    }
+
+    public LocalDateTime getTime() { return time; }
+    public double getOccupied() { return occupied; }
+    public long getAvailable() { return available; }
+    public int getOccupancyRate() { return occupancyRate; }
+}
@@ -0,0 +1,59 @@
+package com.parkease.backend.dto;
+
+import com.parkease.backend.enumtype.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One booking on the provider's live board, filled by a JPQL constructor
+ * expression with the driver name and slot number joined in, so the board
+ * needs no lazy driver or slot load per booking.
+ */
+public class LiveBookingRow {
+
+    private final Long id;
+    private final Long lotId;
+    private final String lotName;
+    private final String driverName;
+    private final String vehicleNumber;
+    private final String slotNumber;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final BookingStatus status;
+
+    public LiveBookingRow(
+            Long id,
+            Long lotId,
+            String lotName,
+            String driverName,
+            String vehicleNumber,
+            String slotNumber,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            BookingStatus status
+    ) {
+        this.id = id;
+        this.lotId = lotId;
+        this.lotName = lotName;
+        this.driverName = driverName;
+        this.vehicleNumber = vehicleNumber;
+        this.slotNumber = slotNumber;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public Long getLotId() { return lotId; }
+    public String getLotName() { return lotName; }
+    public String getDriverName() { return driverName; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public String getSlotNumber() { return slotNumber; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public BookingStatus getStatus() { return status; }
+
+    public LiveBookingRow withStatus(BookingStatus status) {
+        return new LiveBookingRow(id, lotId, lotName, driverName, vehicleNumber, slotNumber, startTime, endTime, status);
+    }
+}
@@ -4,11 +4,14 @@ import java.util.List;
 
 public class LiveStatusResponse {
 
+    // totals across all of the provider's lots
     private Stats stats;
+    private List<LotStats> lots;
     private List<ActiveBookingResponse> bookings;
 
-    public LiveStatusResponse(Stats stats, List<ActiveBookingResponse> bookings) {
+    public LiveStatusResponse(Stats stats, List<LotStats> lots, List<ActiveBookingResponse> bookings) {
         this.stats = stats;
+        this.lots = lots;
         this.bookings = bookings;
     }
 
@@ -16,6 +19,10 @@ public class LiveStatusResponse {
         return stats;
     }
 
+    public List<LotStats> getLots() {
+        return lots;
+    }
+
     public List<ActiveBookingResponse> getBookings() {
         return bookings;
     }
@@ -43,4 +50,23 @@ public class LiveStatusResponse {
             return exiting;
         }
     }
+
+    public static class LotStats extends Stats {
+        private Long lotId;
+        private String name;
+
+        public LotStats(Long lotId, String name, int occupied, int available, int exiting) {
+            super(occupied, available, exiting);
+            this.lotId = lotId;
+            this.name = name;
+        }
+
+        public Long getLotId() {
+            return lotId;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package com.parkease.backend.dto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query parameters of the driver lot search (bound from the query string):
+ * ev, minPrice, maxPrice, city, minAvailable, sort (price | availability |
+ * distance), order (asc | desc), page (0-based) and size.
+ *
+ * Without page/size the whole match list is returned, as before; the match
+ * count is always sent in {@link #TOTAL_HEADER}.
+ */
+public class LotSearchFilter {
+
+    public static final String TOTAL_HEADER = "X-Total-Count";
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final List<String> SORTS = List.of("price", "availability", "distance");
+
+    private Boolean ev;
+    private Double minPrice;
+    private Double maxPrice;
+    private String city;
+    private Integer minAvailable;
+    private String sort;
+    private String order;
+    private Integer page;
+    private Integer size;
+
+    public Boolean getEv() { return ev; }
+    public void setEv(Boolean ev) { this.ev = ev; }
+    public Double getMinPrice() { return minPrice; }
+    public void setMinPrice(Double minPrice) { this.minPrice = minPrice; }
+    public Double getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(Double maxPrice) { this.maxPrice = maxPrice; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public Integer getMinAvailable() { return minAvailable; }
+    public void setMinAvailable(Integer minAvailable) { this.minAvailable = minAvailable; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public String getOrder() { return order; }
+    public void setOrder(String order) { this.order = order; }
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    /** Message for unusable parameters, or null. */
+    public String invalid(boolean hasCenter) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return "minPrice must not be greater than maxPrice";
+        }
+        if (sort != null && !SORTS.contains(sort.toLowerCase())) {
+            return "sort must be one of " + SORTS;
+        }
+        if ("distance".equalsIgnoreCase(sort) && !hasCenter) {
+            return "sort=distance needs lat and lng";
+        }
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            return "order must be asc or desc";
+        }
+        if (page != null && page < 0) {
+            return "page must not be negative";
+        }
+        return null;
+    }
+
+    public boolean hasFilters() {
+        return ev != null || minPrice != null || maxPrice != null
+                || (city != null && !city.isBlank()) || minAvailable != null;
+    }
+
+    public boolean matches(LotSearchRow row) {
+        if (ev != null && row.isEvSupported() != ev) {
+            return false;
+        }
+        if (minPrice != null && row.getPrice() < minPrice) {
+            return false;
+        }
+        if (maxPrice != null && row.getPrice() > maxPrice) {
+            return false;
+        }
+        if (city != null && !city.isBlank() && (row.getCity() == null || !row.getCity().equalsIgnoreCase(city.trim()))) {
+            return false;
+        }
+        return minAvailable == null || row.getAvailableSlots() >= minAvailable;
+    }
+
+    /**
+     * Requested order, or null to keep the incoming one (id order, or nearest
+     * first for a radius search). Ties fall back to the lot id.
+     */
+    public Comparator<LotSearchRow> comparator(Map<Long, Double> distances) {
+        if (sort == null) {
+            return null;
+        }
+        Comparator<LotSearchRow> comparator;
+        boolean descending;
+        switch (sort.toLowerCase()) {
+            case "price" -> {
+                comparator = Comparator.comparingDouble(LotSearchRow::getPrice);
+                descending = "desc".equalsIgnoreCase(order);
+            }
+            case "availability" -> {
+                comparator = Comparator.comparingInt(LotSearchRow::getAvailableSlots);
+                // most free slots first unless asked otherwise
+                descending = !"asc".equalsIgnoreCase(order);
+            }
+            default -> {
+                comparator = Comparator.comparingDouble(row -> distances.getOrDefault(row.getId(), Double.MAX_VALUE));
+                descending = "desc".equalsIgnoreCase(order);
+            }
+        }
+        if (descending) {
+            comparator = comparator.reversed();
+        }
+        return comparator.thenComparing(LotSearchRow::getId);
+    }
+
+    public boolean isPaged() {
+        return page != null || size != null;
+    }
+
+    public int pageSize() {
+        if (size == null) {
+            return 20;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public int pageNumber() {
+        return page != null ? page : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.parkease.backend.dto;
+
+/**
+ * One lot in the driver search, filled by a grouped JPQL constructor
+ * expression: lot columns, owner name and occupied-slot count in one row,
+ * so the search needs no per-lot count or provider load.
+ */
+public class LotSearchRow {
+
+    // shown (and filtered on) when the provider has not set a price
+    public static final double DEFAULT_PRICE = 40.0;
+
+    private final Long id;
+    private final String name;
+    private final String ownerName;
+    private final String address;
+    private final String city;
+    private final int totalSlots;
+    private final boolean evSupported;
+    private final Double basePrice;
+    private final Double latitude;
+    private final Double longitude;
+    private final long occupiedSlots;
+
+    public LotSearchRow(
+            Long id,
+            String name,
+            String ownerName,
+            String address,
+            String city,
+            int totalSlots,
+            boolean evSupported,
+            Double basePrice,
+            Double latitude,
+            Double longitude,
+            Long occupiedSlots
+    ) {
+        this.id = id;
+        this.name = name;
+        this.ownerName = ownerName;
+        this.address = address;
+        this.city = city;
+        this.totalSlots = totalSlots;
+        this.evSupported = evSupported;
+        this.basePrice = basePrice;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.occupiedSlots = occupiedSlots != null ? occupiedSlots : 0;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getOwnerName() { return ownerName; }
+    public String getAddress() { return address; }
+    public String getCity() { return city; }
+    public int getTotalSlots() { return totalSlots; }
+    public boolean isEvSupported() { return evSupported; }
+    public Double getBasePrice() { return basePrice; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public long getOccupiedSlots() { return occupiedSlots; }
+
+    public double getPrice() {
+        return basePrice != null ? basePrice : DEFAULT_PRICE;
+    }
+
+    public int getAvailableSlots() {
+        return Math.max(0, totalSlots - (int) occupiedSlots);
+    }
+}
@@ -0,0 +1,24 @@
+package com.parkease.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of a lot's occupancy history: average and peak occupied slots
+ * over the minutes sampled in it, both null when none were.
+ */
+public class OccupancyPoint {
+
+    private final LocalDateTime time;
+    private final Integer occupied;
+    private final Integer peak;
+
+    public OccupancyPoint(LocalDateTime time, Integer occupied, Integer peak) {
+        this.time = time;
+        this.occupied = occupied;
+        this.peak = peak;
+    }
+
+    public LocalDateTime getTime() { return time; }
+    public Integer getOccupied() { return occupied; }
+    public Integer getPeak() { return peak; }
+}
@@ -6,7 +6,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // keyset pagination: driver lists by (startTime, id), lot history / earnings by (endTime, id)
+        @Index(name = "idx_booking_driver_start", columnList = "driver_id, startTime, id"),
+        @Index(name = "idx_booking_lot_end", columnList = "parking_lot_id, endTime, id")
+})
 public class Booking {
 
     @Id
@@ -49,6 +53,12 @@ public class Booking {
     @Column(nullable = false)
     private Double totalAmount = 0.0;
 
+    // ===== Concurrency =====
+    // Optimistic lock; default keeps rows created before this column existed valid
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     // ===== Getters & Setters =====
 
     public Long getId() {
@@ -122,4 +132,8 @@ public class Booking {
     public void setTotalAmount(Double totalAmount) {
         this.totalAmount = totalAmount;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
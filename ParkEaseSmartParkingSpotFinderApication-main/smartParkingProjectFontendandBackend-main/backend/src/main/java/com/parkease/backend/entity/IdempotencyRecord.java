@@ -0,0 +1,68 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of a request sent with an Idempotency-Key header, so a
+ * retried request can be answered without running it again.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_created", columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // principal + endpoint + client key
+    @Column(nullable = false, unique = true, length = 512)
+    private String recordKey;
+
+    @Column(nullable = false)
+    private Integer statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    // SHA-256 of the request payload, to spot a key reused for another request
+    @Column(length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String recordKey, Integer statusCode, String responseBody, String requestHash) {
+        this.recordKey = recordKey;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.requestHash = requestHash;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecordKey() {
+        return recordKey;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
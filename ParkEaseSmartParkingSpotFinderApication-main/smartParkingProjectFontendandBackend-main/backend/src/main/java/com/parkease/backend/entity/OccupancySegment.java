@@ -0,0 +1,68 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One lot's occupancy samples for one day: 1440 per-minute occupied-slot
+ * counts packed as big-endian shorts, -1 where no sample was taken.
+ * Written by the occupancy history recorder (spilled from its in-memory
+ * ring), read back for charts older than the ring.
+ */
+@Entity
+@Table(name = "occupancy_segments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_occupancy_segment_lot_date", columnNames = { "lotId", "sampleDate" }),
+        indexes = @Index(name = "idx_occupancy_segment_date", columnList = "sampleDate"))
+public class OccupancySegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lotId;
+
+    @Column(nullable = false)
+    private LocalDate sampleDate;
+
+    @Column(nullable = false, length = 2880)
+    private byte[] samples;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public OccupancySegment() {
+    }
+
+    public OccupancySegment(Long lotId, LocalDate sampleDate, byte[] samples) {
+        this.lotId = lotId;
+        this.sampleDate = sampleDate;
+        this.samples = samples;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public LocalDate getSampleDate() {
+        return sampleDate;
+    }
+
+    public byte[] getSamples() {
+        return samples;
+    }
+
+    public void setSamples(byte[] samples) {
+        this.samples = samples;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
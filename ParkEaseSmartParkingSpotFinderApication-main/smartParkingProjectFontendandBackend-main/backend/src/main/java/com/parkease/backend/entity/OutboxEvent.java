@@ -0,0 +1,116 @@
+package com.parkease.backend.entity;
+
+import com.parkease.backend.enumtype.OutboxStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect of a committed booking that still has to be applied (payment
+ * row, provider credit, provider ledger entry). Written in the booking's own
+ * transaction and drained by the outbox worker.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_status", columnList = "status, id"))
+public class OutboxEvent {
+
+    public static final String BOOKING_PAID = "BOOKING_PAID";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    // ===== Payload =====
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long providerId;
+
+    @Column(nullable = false)
+    private double amount;
+
+    @Column(nullable = false)
+    private double platformFee;
+
+    private String paymentMethod;
+
+    // ===== Processing =====
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, Long bookingId, Long providerId, double amount, double platformFee,
+            String paymentMethod) {
+        this.eventType = eventType;
+        this.bookingId = bookingId;
+        this.providerId = providerId;
+        this.amount = amount;
+        this.platformFee = platformFee;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getPlatformFee() {
+        return platformFee;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -42,6 +42,10 @@ public class ParkingLot {
     private Double latitude;
     private Double longitude;
 
+    // ===== Slot Selection =====
+    // SlotSelectionStrategy name; null = parking.slot-selection.default
+    private String slotSelection;
+
     // ===== Pricing =====
     private Double basePrice;
     private Double pricePerHour; // Alias for basePrice or distinct field
@@ -144,6 +148,14 @@ public class ParkingLot {
         this.longitude = longitude;
     }
 
+    public String getSlotSelection() {
+        return slotSelection;
+    }
+
+    public void setSlotSelection(String slotSelection) {
+        this.slotSelection = slotSelection;
+    }
+
     public Double getBasePrice() {
         return basePrice;
     }
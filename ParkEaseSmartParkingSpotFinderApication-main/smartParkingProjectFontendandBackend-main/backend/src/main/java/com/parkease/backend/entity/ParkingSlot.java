@@ -44,6 +44,12 @@ public class ParkingSlot {
     private Double latitude;
     private Double longitude;
 
+    // ===== Concurrency =====
+    // Optimistic lock; default keeps rows created before this column existed valid
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     // ===== Getters & Setters =====
 
     public Long getId() {
@@ -150,4 +156,8 @@ public class ParkingSlot {
     public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,7 @@
+package com.parkease.backend.enumtype;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
@@ -1,5 +1,26 @@
 package com.parkease.backend.enumtype;
 
 public enum VehicleType {
-   CAR, BIKE, EV, STANDARD, PREMIUM
+   CAR, BIKE, EV, STANDARD, PREMIUM;
+
+   /** Lenient parse of free-text types from apps and profiles ("Car", "bike", "Electric"); null if unknown. */
+   public static VehicleType fromLabel(String label) {
+      if (label == null || label.isBlank()) {
+         return null;
+      }
+      String value = label.trim().toUpperCase();
+      switch (value) {
+         case "ELECTRIC":
+            return EV;
+         case "MOTORCYCLE":
+         case "SCOOTER":
+            return BIKE;
+         default:
+            try {
+               return valueOf(value);
+            } catch (IllegalArgumentException e) {
+               return null;
+            }
+      }
+   }
 }
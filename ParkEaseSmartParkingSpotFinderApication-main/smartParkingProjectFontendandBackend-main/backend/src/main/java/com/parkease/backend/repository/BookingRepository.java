@@ -22,6 +22,35 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByDriverIdAndStatus(Long driverId, BookingStatus status);
 
+    // Driver booking list: only the columns the list shows, newest first.
+    // Keyset page after (cursorTime, cursorId), served by idx_booking_driver_start
+    @Query("""
+                SELECT new com.parkease.backend.dto.DriverBookingRow(
+                    b.id, l.id, l.name, l.address, b.startTime, b.endTime, b.totalAmount, b.vehicleNumber, b.status)
+                FROM Booking b LEFT JOIN b.parkingLot l
+                WHERE b.driver.id = :driverId
+                  AND (b.startTime < :cursorTime OR (b.startTime = :cursorTime AND b.id < :cursorId))
+                ORDER BY b.startTime DESC, b.id DESC
+            """)
+    List<com.parkease.backend.dto.DriverBookingRow> findDriverBookingRows(@Param("driverId") Long driverId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            org.springframework.data.domain.Pageable pageable);
+
+    @Query("""
+                SELECT new com.parkease.backend.dto.DriverBookingRow(
+                    b.id, l.id, l.name, l.address, b.startTime, b.endTime, b.totalAmount, b.vehicleNumber, b.status)
+                FROM Booking b LEFT JOIN b.parkingLot l
+                WHERE b.driver.id = :driverId AND b.status = :status
+                  AND (b.startTime < :cursorTime OR (b.startTime = :cursorTime AND b.id < :cursorId))
+                ORDER BY b.startTime DESC, b.id DESC
+            """)
+    List<com.parkease.backend.dto.DriverBookingRow> findDriverBookingRowsByStatus(@Param("driverId") Long driverId,
+            @Param("status") BookingStatus status,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            org.springframework.data.domain.Pageable pageable);
+
     List<Booking> findByParkingLot(ParkingLot parkingLot);
 
     List<Booking> findByStatus(BookingStatus status);
@@ -39,8 +68,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                 FROM Booking b
                 WHERE b.parkingLot.provider.id = :providerId
                   AND b.status = 'COMPLETED'
+                  AND (b.endTime < :cursorTime OR (b.endTime = :cursorTime AND b.id < :cursorId))
+                ORDER BY b.endTime DESC, b.id DESC
             """)
-    List<Booking> findCompletedBookingsForProvider(@Param("providerId") Long providerId);
+    List<Booking> findCompletedBookingsForProvider(@Param("providerId") Long providerId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            org.springframework.data.domain.Pageable pageable);
 
     @Query("""
                 SELECT b
@@ -52,6 +86,27 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("parkingLotId") Long parkingLotId,
             @Param("statuses") List<BookingStatus> statuses);
 
+    // Provider live board over all of the provider's lots: bookings with lot, driver and slot joined in
+    @Query("""
+                SELECT new com.parkease.backend.dto.LiveBookingRow(
+                    b.id, l.id, l.name, d.fullName, b.vehicleNumber, s.slotNumber, b.startTime, b.endTime, b.status)
+                FROM Booking b JOIN b.parkingLot l LEFT JOIN b.driver d LEFT JOIN b.parkingSlot s
+                WHERE l.provider.id = :providerId
+                  AND b.status IN :statuses
+                ORDER BY b.startTime, b.id
+            """)
+    List<com.parkease.backend.dto.LiveBookingRow> findLiveRowsForProvider(
+            @Param("providerId") Long providerId,
+            @Param("statuses") List<BookingStatus> statuses);
+
+    @Query("""
+                SELECT new com.parkease.backend.dto.LiveBookingRow(
+                    b.id, l.id, l.name, d.fullName, b.vehicleNumber, s.slotNumber, b.startTime, b.endTime, b.status)
+                FROM Booking b JOIN b.parkingLot l LEFT JOIN b.driver d LEFT JOIN b.parkingSlot s
+                WHERE b.id = :bookingId
+            """)
+    java.util.Optional<com.parkease.backend.dto.LiveBookingRow> findLiveRow(@Param("bookingId") Long bookingId);
+
     long countByStatus(BookingStatus status);
 
     long countByCreatedAtAfter(LocalDateTime date);
@@ -66,11 +121,36 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("""
                 SELECT b
                 FROM Booking b
-                WHERE b.parkingLot.id = :lotId
+                JOIN FETCH b.driver
+                JOIN FETCH b.parkingSlot
+                WHERE b.parkingLot.id IN :lotIds
+                  AND b.status IN ('COMPLETED', 'CANCELLED')
+                  AND (b.endTime < :cursorTime OR (b.endTime = :cursorTime AND b.id < :cursorId))
+                ORDER BY b.endTime DESC, b.id DESC
+            """)
+    List<Booking> findBookingHistory(@Param("lotIds") java.util.Collection<Long> lotIds,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            org.springframework.data.domain.Pageable pageable);
+
+    // [lotId, status, count] of finished bookings per lot, for the history summary
+    @Query("""
+                SELECT b.parkingLot.id, b.status, COUNT(b.id)
+                FROM Booking b
+                WHERE b.parkingLot.id IN :lotIds
                   AND b.status IN ('COMPLETED', 'CANCELLED')
-                ORDER BY b.endTime DESC
+                GROUP BY b.parkingLot.id, b.status
             """)
-    List<Booking> findBookingHistory(@Param("lotId") Long lotId);
+    List<Object[]> countFinishedByLot(@Param("lotIds") java.util.Collection<Long> lotIds);
+
+    // [lotId, startTime, endTime] of completed bookings, for the occupancy forecast
+    @Query("""
+                SELECT b.parkingLot.id, b.startTime, b.endTime
+                FROM Booking b
+                WHERE b.status = 'COMPLETED'
+                  AND b.endTime > :since
+            """)
+    List<Object[]> findCompletedWindowsSince(@Param("since") LocalDateTime since);
 
     @Query("""
                 SELECT b
@@ -108,6 +188,52 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Long> findOccupiedSlotIds(@Param("lotId") Long lotId, @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime, @Param("statuses") List<BookingStatus> statuses);
 
+    // [lotId, slotId, startTime, endTime] for the in-memory availability index
+    @Query("SELECT b.parkingLot.id, b.parkingSlot.id, b.startTime, b.endTime FROM Booking b WHERE b.status IN :statuses")
+    List<Object[]> findBookedIntervals(@Param("statuses") List<BookingStatus> statuses);
+
+    // [slotId, startTime, endTime]
+    @Query("SELECT b.parkingSlot.id, b.startTime, b.endTime FROM Booking b WHERE b.parkingLot.id = :lotId AND b.status IN :statuses")
+    List<Object[]> findBookedIntervalsForLot(@Param("lotId") Long lotId,
+            @Param("statuses") List<BookingStatus> statuses);
+
+    // [startTime, endTime]
+    @Query("SELECT b.startTime, b.endTime FROM Booking b WHERE b.parkingSlot.id = :slotId AND b.status IN :statuses")
+    List<Object[]> findBookedIntervalsForSlot(@Param("slotId") Long slotId,
+            @Param("statuses") List<BookingStatus> statuses);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.parkingSlot.id = :slotId AND b.status IN :statuses " +
+            "AND b.startTime < :end AND b.endTime > :start")
+    boolean existsOverlapping(@Param("slotId") Long slotId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, @Param("statuses") List<BookingStatus> statuses);
+
+    // [slotId, bookings] for even-wear slot selection
+    @Query("SELECT b.parkingSlot.id, COUNT(b) FROM Booking b GROUP BY b.parkingSlot.id")
+    List<Object[]> countBookingsPerSlot();
+
+    @Query("SELECT b.parkingSlot.id, COUNT(b) FROM Booking b WHERE b.parkingLot.id = :lotId GROUP BY b.parkingSlot.id")
+    List<Object[]> countBookingsPerSlotForLot(@Param("lotId") Long lotId);
+
+    // [startTime, endTime] of the lot's bookings overlapping [from, to), for the availability calendar
+    @Query("SELECT b.startTime, b.endTime FROM Booking b WHERE b.parkingLot.id = :lotId AND b.status IN :statuses AND b.startTime < :to AND b.endTime > :from")
+    List<Object[]> findBookedIntervalsForLotBetween(@Param("lotId") Long lotId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("statuses") List<BookingStatus> statuses);
+
+    // [bookingId, status, endTime] for the lifecycle timing wheel
+    @Query("SELECT b.id, b.status, b.endTime FROM Booking b WHERE b.status IN :statuses AND b.endTime IS NOT NULL")
+    List<Object[]> findLifecycleTimers(@Param("statuses") List<BookingStatus> statuses);
+
+    // [bookingId, lotId, slotId, startTime, endTime] for bookings still eligible for a transition
+    @Query("SELECT b.id, b.parkingLot.id, b.parkingSlot.id, b.startTime, b.endTime FROM Booking b WHERE b.id IN :ids AND b.status IN :statuses")
+    List<Object[]> findTransitionCandidates(@Param("ids") List<Long> ids,
+            @Param("statuses") List<BookingStatus> statuses);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = COALESCE(b.version, 0) + 1 WHERE b.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") BookingStatus status);
+
     @Query(value = "SELECT COUNT(DISTINCT driver_id) FROM bookings", nativeQuery = true)
     long countDistinctDrivers();
 
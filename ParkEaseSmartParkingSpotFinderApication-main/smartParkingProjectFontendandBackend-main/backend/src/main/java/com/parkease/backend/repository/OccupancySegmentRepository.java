@@ -0,0 +1,24 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.OccupancySegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface OccupancySegmentRepository extends JpaRepository<OccupancySegment, Long> {
+
+    List<OccupancySegment> findByLotIdAndSampleDateBetweenOrderBySampleDate(Long lotId, LocalDate from, LocalDate to);
+
+    List<OccupancySegment> findBySampleDateInAndLotIdIn(Collection<LocalDate> days, Collection<Long> lotIds);
+
+    List<OccupancySegment> findBySampleDateBetween(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM OccupancySegment s WHERE s.sampleDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -0,0 +1,32 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.OutboxEvent;
+import com.parkease.backend.enumtype.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status ORDER BY e.id")
+    List<OutboxEvent> findBatch(@Param("status") OutboxStatus status, Pageable pageable);
+
+    // Claims only events still PENDING; fewer rows than ids means another run got there first
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSED', e.processedAt = :now WHERE e.id IN :ids AND e.status = 'PENDING'")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id IN :ids")
+    int recordFailedAttempt(@Param("ids") List<Long> ids, @Param("error") String error);
+
+    // Events stay PENDING (and are retried) until they run out of attempts
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'FAILED' WHERE e.id IN :ids AND e.attempts >= :maxAttempts")
+    int markExhausted(@Param("ids") List<Long> ids, @Param("maxAttempts") int maxAttempts);
+}
@@ -26,4 +26,65 @@ public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
 
     @Query("SELECT COALESCE(SUM(p.totalSlots), 0) FROM ParkingLot p WHERE p.provider.id = :providerId")
     int sumTotalSlotsByProvider(@Param("providerId") Long providerId);
+
+    // [lotId, createdAt]
+    @Query("SELECT p.id, p.createdAt FROM ParkingLot p")
+    List<Object[]> findCreatedTimes();
+
+    // [lotId, latitude, longitude, slotSelection] for the slot selection pools
+    @Query("SELECT p.id, p.latitude, p.longitude, p.slotSelection FROM ParkingLot p")
+    List<Object[]> findSlotSelectionSettings();
+
+    @Query("SELECT p.id, p.latitude, p.longitude, p.slotSelection FROM ParkingLot p WHERE p.id = :lotId")
+    List<Object[]> findSlotSelectionSettings(@Param("lotId") Long lotId);
+
+    // [lotId, latitude, longitude, providerId] of lots drivers can find on the map
+    @Query("SELECT p.id, p.latitude, p.longitude, p.provider.id FROM ParkingLot p " +
+            "WHERE p.active = true AND p.provider.approved = true " +
+            "AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<Object[]> findSearchableLocations();
+
+    @Query("SELECT p.id, p.latitude, p.longitude, p.provider.id FROM ParkingLot p " +
+            "WHERE p.id = :lotId AND p.active = true AND p.provider.approved = true " +
+            "AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<Object[]> findSearchableLocation(@Param("lotId") Long lotId);
+
+    @Query("SELECT p.id, p.latitude, p.longitude, p.provider.id FROM ParkingLot p " +
+            "WHERE p.provider.id = :providerId AND p.active = true AND p.provider.approved = true " +
+            "AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<Object[]> findSearchableLocationsByProvider(@Param("providerId") Long providerId);
+
+    // Driver search: lot, owner and occupied count in one grouped query; unapproved providers excluded
+    @Query("""
+                SELECT new com.parkease.backend.dto.LotSearchRow(
+                    l.id, l.name, p.fullName, l.address, l.city, l.totalSlots, l.evSupported,
+                    l.basePrice, l.latitude, l.longitude, COUNT(s.id))
+                FROM ParkingLot l JOIN l.provider p
+                LEFT JOIN l.slots s ON s.occupied = true
+                WHERE p.approved = true
+                GROUP BY l.id, l.name, p.fullName, l.address, l.city, l.totalSlots, l.evSupported,
+                    l.basePrice, l.latitude, l.longitude
+            """)
+    List<com.parkease.backend.dto.LotSearchRow> findSearchRows();
+
+    @Query("""
+                SELECT new com.parkease.backend.dto.LotSearchRow(
+                    l.id, l.name, p.fullName, l.address, l.city, l.totalSlots, l.evSupported,
+                    l.basePrice, l.latitude, l.longitude, COUNT(s.id))
+                FROM ParkingLot l JOIN l.provider p
+                LEFT JOIN l.slots s ON s.occupied = true
+                WHERE p.approved = true AND l.id IN :lotIds
+                GROUP BY l.id, l.name, p.fullName, l.address, l.city, l.totalSlots, l.evSupported,
+                    l.basePrice, l.latitude, l.longitude
+            """)
+    List<com.parkease.backend.dto.LotSearchRow> findSearchRows(@Param("lotIds") java.util.Collection<Long> lotIds);
+
+    // Occupancy registry load/reconcile: [lotId, providerId, slotCount, occupiedCount] for every lot
+    @Query("""
+                SELECT l.id, p.id, COUNT(s.id), SUM(CASE WHEN s.occupied = true THEN 1 ELSE 0 END)
+                FROM ParkingLot l LEFT JOIN l.provider p
+                LEFT JOIN l.slots s
+                GROUP BY l.id, p.id
+            """)
+    List<Object[]> findOccupancyCounts();
 }
@@ -4,7 +4,11 @@ import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.ParkingSlot;
 import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.enumtype.SlotStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import java.util.List;
 
@@ -33,4 +37,34 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
     long countByParkingLot(ParkingLot parkingLot);
 
     List<ParkingSlot> findByParkingLotAndVehicleType(ParkingLot parkingLot, VehicleType vehicleType);
+
+    // Lightweight rows for the in-memory availability index:
+    // [slotId, lotId, occupied, vehicleType, evOnly, status, latitude, longitude]
+    @Query("SELECT s.id, s.parkingLot.id, s.occupied, s.vehicleType, s.evOnly, s.status, s.latitude, s.longitude FROM ParkingSlot s")
+    List<Object[]> findSlotStates();
+
+    // [slotId, occupied, vehicleType, evOnly, status, latitude, longitude]
+    @Query("SELECT s.id, s.occupied, s.vehicleType, s.evOnly, s.status, s.latitude, s.longitude FROM ParkingSlot s WHERE s.parkingLot.id = :lotId")
+    List<Object[]> findSlotStatesByLot(@Param("lotId") Long lotId);
+
+    @Query("SELECT s.slotNumber FROM ParkingSlot s WHERE s.parkingLot.id = :lotId")
+    List<String> findSlotNumbersByLot(@Param("lotId") Long lotId);
+
+    @Query("SELECT s.occupied FROM ParkingSlot s WHERE s.id = :slotId")
+    Optional<Boolean> findOccupiedById(@Param("slotId") Long slotId);
+
+    // Bumps the version on commit even if the slot is unchanged, so two bookings
+    // of one slot (for any time range) never commit concurrently
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT s FROM ParkingSlot s WHERE s.id IN :slotIds")
+    List<ParkingSlot> findAllForBooking(@Param("slotIds") List<Long> slotIds);
+
+    // [lotId, count] of the given slots that are still occupied
+    @Query("SELECT s.parkingLot.id, COUNT(s.id) FROM ParkingSlot s WHERE s.id IN :slotIds AND s.occupied = true GROUP BY s.parkingLot.id")
+    List<Object[]> countOccupiedByLot(@Param("slotIds") List<Long> slotIds);
+
+    // Bulk release used by the booking lifecycle engine; bumps @Version like an entity update would
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE ParkingSlot s SET s.occupied = false, s.version = COALESCE(s.version, 0) + 1 WHERE s.id IN :slotIds")
+    int releaseSlots(@Param("slotIds") List<Long> slotIds);
 }
@@ -64,4 +64,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
             @org.springframework.data.repository.query.Param("role") Role role,
             @org.springframework.data.repository.query.Param("date") LocalDateTime date);
 
+
+    // Atomic wallet updates: no read-modify-write race between concurrent requests.
+    // Native because Hibernate's H2 dialect renders double parameters in arithmetic as an invalid cast.
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE users SET wallet_balance = COALESCE(wallet_balance, 0) + :amount WHERE id = :userId", nativeQuery = true)
+    int creditWallet(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("amount") double amount);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(u.walletBalance, 0) FROM User u WHERE u.id = :userId")
+    Double findWalletBalance(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    // Returns 0 when the balance does not cover the amount
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE users SET wallet_balance = wallet_balance - :amount WHERE id = :userId AND wallet_balance >= :amount", nativeQuery = true)
+    int debitWallet(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("amount") double amount);
 }
@@ -2,14 +2,17 @@ package com.parkease.backend.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
 import com.parkease.backend.dto.AdminAnalyticsResponse;
 import com.parkease.backend.dto.AdminStatsDTO;
+import com.parkease.backend.dto.ForecastHour;
 import com.parkease.backend.dto.ParkingDurationResponse;
 import com.parkease.backend.dto.RevenueChartDTO;
 import com.parkease.backend.dto.RoleDistributionDTO;
@@ -20,7 +23,6 @@ import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.PaymentRepository;
 import com.parkease.backend.repository.UserRepository;
 import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
 
 @Service
 public class AdminAnalyticsService {
@@ -29,7 +31,8 @@ public class AdminAnalyticsService {
         private final BookingRepository bookingRepository;
         private final PaymentRepository paymentRepository;
         private final ParkingLotRepository parkingLotRepository;
-        private final ParkingSlotRepository parkingSlotRepository;
+        private final OccupancyRegistry occupancyRegistry;
+        private final OccupancyForecaster occupancyForecaster;
         private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
 
         public AdminAnalyticsService(
@@ -37,13 +40,15 @@ public class AdminAnalyticsService {
                         BookingRepository bookingRepository,
                         PaymentRepository paymentRepository,
                         ParkingLotRepository parkingLotRepository,
-                        ParkingSlotRepository parkingSlotRepository,
+                        OccupancyRegistry occupancyRegistry,
+                        OccupancyForecaster occupancyForecaster,
                         com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository) {
                 this.userRepository = userRepository;
                 this.bookingRepository = bookingRepository;
                 this.paymentRepository = paymentRepository;
                 this.parkingLotRepository = parkingLotRepository;
-                this.parkingSlotRepository = parkingSlotRepository;
+                this.occupancyRegistry = occupancyRegistry;
+                this.occupancyForecaster = occupancyForecaster;
                 this.walletTransactionRepository = walletTransactionRepository;
         }
 
@@ -194,8 +199,8 @@ public class AdminAnalyticsService {
                 /* ===== OCCUPANCY (Current State) ===== */
                 AdminAnalyticsResponse.Occupancy occ = new AdminAnalyticsResponse.Occupancy();
                 occ.totalSlots = parkingLotRepository.sumActiveTotalSlots();
-                occ.occupiedSlots = parkingSlotRepository.countByOccupiedTrue();
-                occ.availableSlots = parkingSlotRepository.countByOccupiedFalse();
+                occ.occupiedSlots = occupancyRegistry.totalOccupied();
+                occ.availableSlots = occupancyRegistry.totalAvailable();
                 occ.occupancyPercentage = occ.totalSlots > 0
                                 ? (int) ((occ.occupiedSlots * 100) / occ.totalSlots)
                                 : 0;
@@ -224,8 +229,21 @@ public class AdminAnalyticsService {
                 sm.revenueGrowth = (int) (Math.random() * 30);
                 res.summary = sm;
 
-                /* ===== PEAK PARKING HOURS (Mocked Intelligence) ===== */
-                res.peakHours.add(createPeakHour("6-8 PM", 94, (int) (sm.todaysBookings * 0.5)));
+                /* ===== PEAK PARKING HOURS (next 24h forecast) ===== */
+                // busiest predicted hours over all lots, from the learned weekday x hour profile
+                res.peakHours = new ArrayList<>();
+                occupancyForecaster.forecastAll().stream()
+                                .filter(h -> h.getOccupied() > 0)
+                                .sorted(Comparator.comparingDouble(ForecastHour::getOccupied).reversed())
+                                .limit(3)
+                                .forEach(h -> res.peakHours.add(createPeakHour(
+                                                h.getTime().format(HOUR_LABEL) + " - "
+                                                                + h.getTime().plusHours(1).format(HOUR_LABEL),
+                                                h.getOccupancyRate(),
+                                                (int) Math.round(h.getOccupied()))));
+                if (res.peakHours.isEmpty()) {
+                        res.peakHours.add(createPeakHour("No Data Yet", 0, 0));
+                }
 
                 /* ===== FLEET INTELLIGENCE (Requirement 4) ===== */
                 // Demand Zones based on booking counts per city
@@ -256,13 +274,15 @@ public class AdminAnalyticsService {
                 // Provider Availability
                 AdminAnalyticsResponse.ProviderAvailability pa = new AdminAnalyticsResponse.ProviderAvailability();
                 pa.total = (int) userRepository.countByRole(Role.PROVIDER);
-                pa.busy = (int) parkingSlotRepository.countByOccupiedTrue();
+                pa.busy = (int) occupancyRegistry.totalOccupied();
                 pa.free = Math.max(0, pa.total - pa.busy);
                 res.providerAvailability = pa;
 
                 return res;
         }
 
+        private static final DateTimeFormatter HOUR_LABEL = DateTimeFormatter.ofPattern("h a");
+
         private AdminAnalyticsResponse.PeakHour createPeakHour(String time, int pct, int count) {
                 AdminAnalyticsResponse.PeakHour ph = new AdminAnalyticsResponse.PeakHour();
                 ph.timeSlot = time;
@@ -323,7 +343,7 @@ public class AdminAnalyticsService {
                 double successRate = totalBookings > 0 ? (double) completedBookings * 100 / totalBookings : 0;
 
                 long totalSlots = parkingLotRepository.sumActiveTotalSlots();
-                long occupiedSlots = parkingSlotRepository.countByOccupiedTrue();
+                long occupiedSlots = occupancyRegistry.totalOccupied();
                 double occupancyRate = totalSlots > 0 ? (double) occupiedSlots * 100 / totalSlots : 0;
 
                 LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
@@ -356,8 +376,8 @@ public class AdminAnalyticsService {
                 // 1. High Demand Zones (>80% occupancy)
                 List<com.parkease.backend.dto.AdminAnalyticsInsightsDTO.HighDemandZone> highDemand = new ArrayList<>();
                 parkingLotRepository.findAll().forEach(lot -> {
-                        long total = parkingSlotRepository.countByParkingLot(lot);
-                        long occupied = parkingSlotRepository.countByParkingLotAndOccupiedTrue(lot);
+                        long total = occupancyRegistry.slots(lot.getId());
+                        long occupied = occupancyRegistry.occupied(lot.getId());
                         if (total > 0) {
                                 int rate = (int) (occupied * 100 / total);
                                 if (rate >= 80) {
@@ -425,7 +445,7 @@ public class AdminAnalyticsService {
 
                 // 7. Active Occupancy
                 long totalSlots = parkingLotRepository.sumActiveTotalSlots();
-                long occupiedSlots = parkingSlotRepository.countByOccupiedTrue();
+                long occupiedSlots = occupancyRegistry.totalOccupied();
                 insights.activeOccupancy = totalSlots > 0 ? (double) occupiedSlots * 100 / totalSlots : 0.0;
 
                 // 8. Revenue By Category
@@ -20,12 +20,18 @@ public class AdminProviderService {
 
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
 
     public AdminProviderService(
             UserRepository userRepository,
-            NotificationRepository notificationRepository) {
+            NotificationRepository notificationRepository,
+            LotGeoIndex lotGeoIndex,
+            LotSearchSnapshot lotSearchSnapshot) {
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
     }
 
     /*
@@ -80,6 +86,9 @@ public class AdminProviderService {
         try {
             userRepository.saveAndFlush(provider);
             System.out.println("DEBUG: Provider " + id + " status updated and flushed.");
+            // their lots become searchable once this commits
+            lotGeoIndex.refreshProvider(id);
+            lotSearchSnapshot.reloadAfterCommit();
         } catch (Exception e) {
             System.err.println("DB ERROR during approval: " + e.getMessage());
             throw new RuntimeException("Database could not save provider: " + e.getMessage());
@@ -139,6 +148,7 @@ public class AdminProviderService {
 
         provider.setVerificationStatus(VerificationStatus.REJECTED);
         userRepository.delete(provider);
+        lotGeoIndex.refreshProvider(id);
 
         createNotification(
                 "A provider application was rejected by admin.",
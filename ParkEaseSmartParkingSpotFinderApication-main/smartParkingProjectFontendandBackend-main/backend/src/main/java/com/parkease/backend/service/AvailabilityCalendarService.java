@@ -0,0 +1,190 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.repository.BookingRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Free-slot counts of a lot for one day, in 15-minute buckets.
+ *
+ * A day is computed in one sweep over the lot's bookings that overlap it:
+ * start and end times are sorted separately and walked together with the
+ * bucket boundaries, tracking how many bookings run at once and the peak
+ * inside each bucket. Free = slots - peak, i.e. what could still be booked
+ * for the whole bucket.
+ *
+ * Peaks are cached per (lot, day) and dropped when a committed booking change
+ * touches that day ({@link BookingWindowChangedEvent}). The slot count is read
+ * at request time, so newly provisioned slots show up without invalidation.
+ */
+@Service
+public class AvailabilityCalendarService {
+
+    public static final int BUCKET_MINUTES = 15;
+    static final int BUCKETS = 24 * 60 / BUCKET_MINUTES;
+
+    private static final int BUCKET_SECONDS = BUCKET_MINUTES * 60;
+    private static final int DAY_SECONDS = 24 * 60 * 60;
+    private static final int CACHE_SIZE = 4_096;
+
+    private final BookingRepository bookingRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+
+    // "lotId|date" -> peak concurrent bookings per bucket; guarded by itself
+    private final Map<String, int[]> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    // bumped on every invalidation so a computation that raced with one is not cached
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    public AvailabilityCalendarService(
+            BookingRepository bookingRepository,
+            SlotAvailabilityIndex availabilityIndex) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public Map<String, Object> getDay(Long lotId, LocalDate date) {
+        int[] peaks = peaks(lotId, date);
+        int totalSlots = availabilityIndex.slotCount(lotId);
+
+        List<Map<String, Object>> buckets = new ArrayList<>(BUCKETS);
+        LocalTime time = LocalTime.MIDNIGHT;
+        for (int b = 0; b < BUCKETS; b++) {
+            LocalTime next = time.plusMinutes(BUCKET_MINUTES);
+            buckets.add(Map.of(
+                    "start", time.toString(),
+                    "end", next.toString(),
+                    "free", Math.max(0, totalSlots - peaks[b])
+            ));
+            time = next;
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("lotId", lotId);
+        response.put("date", date.toString());
+        response.put("totalSlots", totalSlots);
+        response.put("bucketMinutes", BUCKET_MINUTES);
+        response.put("buckets", buckets);
+        return response;
+    }
+
+    /* ================= INVALIDATION ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingWindowChanged(BookingWindowChangedEvent event) {
+        if (event.getLotId() == null || event.getStart() == null) {
+            return;
+        }
+        generations.merge(event.getLotId(), 1L, Long::sum);
+
+        LocalDate first = event.getStart().toLocalDate();
+        LocalDateTime end = event.getEnd() != null ? event.getEnd() : event.getStart();
+        // an end at exactly midnight does not touch that day
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        synchronized (cache) {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                cache.remove(key(event.getLotId(), day));
+            }
+        }
+    }
+
+    /* ================= SWEEP ================= */
+
+    private int[] peaks(Long lotId, LocalDate date) {
+        String key = key(lotId, date);
+        synchronized (cache) {
+            int[] cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Long generation = generations.get(lotId);
+        LocalDateTime dayStart = date.atStartOfDay();
+        List<Object[]> rows = bookingRepository.findBookedIntervalsForLotBetween(
+                lotId, dayStart, dayStart.plusDays(1), SlotAvailabilityIndex.BLOCKING_STATUSES);
+        int[] peaks = sweep(dayStart, rows);
+
+        synchronized (cache) {
+            if (Objects.equals(generation, generations.get(lotId))) {
+                cache.put(key, peaks);
+            }
+        }
+        return peaks;
+    }
+
+    /** rows = [startTime, endTime], all overlapping the day starting at {@code dayStart}. */
+    static int[] sweep(LocalDateTime dayStart, List<Object[]> rows) {
+        int n = rows.size();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        for (int k = 0; k < n; k++) {
+            starts[k] = secondOfDay(dayStart, (LocalDateTime) rows.get(k)[0]);
+            // sub-second bookings still cover the second they start in
+            ends[k] = Math.max(starts[k] + 1, secondOfDay(dayStart, (LocalDateTime) rows.get(k)[1]));
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+
+        int[] peaks = new int[BUCKETS];
+        int i = 0;
+        int j = 0;
+        int active = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            int bucketStart = b * BUCKET_SECONDS;
+            int bucketEnd = bucketStart + BUCKET_SECONDS;
+
+            // bookings ending exactly at the boundary do not reach into this bucket
+            while (j < n && ends[j] <= bucketStart) {
+                active--;
+                j++;
+            }
+            int peak = active;
+            while (true) {
+                boolean startDue = i < n && starts[i] < bucketEnd;
+                boolean endDue = j < n && ends[j] < bucketEnd;
+                if (!startDue && !endDue) {
+                    break;
+                }
+                // intervals are [start, end): at equal times the end frees its slot first
+                if (endDue && (!startDue || ends[j] <= starts[i])) {
+                    active--;
+                    j++;
+                } else {
+                    active++;
+                    i++;
+                    peak = Math.max(peak, active);
+                }
+            }
+            peaks[b] = peak;
+        }
+        return peaks;
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static int secondOfDay(LocalDateTime dayStart, LocalDateTime time) {
+        long seconds = Duration.between(dayStart, time).getSeconds();
+        return (int) Math.max(0, Math.min(DAY_SECONDS, seconds));
+    }
+
+    private static String key(Long lotId, LocalDate date) {
+        return lotId + "|" + date;
+    }
+}
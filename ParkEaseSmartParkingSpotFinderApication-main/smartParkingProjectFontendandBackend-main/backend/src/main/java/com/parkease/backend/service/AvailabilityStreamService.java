@@ -0,0 +1,202 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.LotSearchRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes lot availability changes to subscribed clients over Server-Sent
+ * Events instead of having them poll the search endpoint.
+ *
+ * Changes come from {@link LotSearchSnapshot}, which re-reads a lot after
+ * every committed occupancy change (bookings via BookingWindowChangedEvent,
+ * slot add/delete via refresh). Publishing never touches a socket: the delta
+ * is parked in each subscriber's pending map (latest value per lot wins) and
+ * a sender thread drains it, so one slow client cannot hold up a booking
+ * or the other clients.
+ */
+@Service
+public class AvailabilityStreamService {
+
+    public static final long TIMEOUT_MS = 30 * 60 * 1000L;
+    public static final int MAX_LOTS_PER_STREAM = 100;
+
+    private static final int SENDER_THREADS = 2;
+
+    private final LotSearchSnapshot lotSearchSnapshot;
+
+    // lotId -> subscribers of that lot
+    private final Map<Long, Set<Subscriber>> byLot = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, r -> {
+        Thread t = new Thread(r, "availability-stream-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AvailabilityStreamService(LotSearchSnapshot lotSearchSnapshot) {
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        lotSearchSnapshot.addChangeListener(this::onLotChanged);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    /* ================= SUBSCRIBE ================= */
+
+    /** Opens a stream for the lots; the first events carry their current availability. */
+    public SseEmitter subscribe(Set<Long> lotIds) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, lotIds);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (Long lotId : lotIds) {
+            byLot.computeIfAbsent(lotId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        // initial state; also loads the snapshot so later changes are tracked
+        for (LotSearchRow row : lotSearchSnapshot.rows(lotIds)) {
+            subscriber.pending.put(row.getId(), delta(row.getId(), row));
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long lotId : subscriber.lotIds) {
+            byLot.computeIfPresent(lotId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /* ================= FAN-OUT ================= */
+
+    private void onLotChanged(LotSearchRow before, LotSearchRow after) {
+        Long lotId = after != null ? after.getId() : before.getId();
+        Set<Subscriber> targets = byLot.get(lotId);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Map<String, Object> delta = delta(lotId, after);
+        for (Subscriber subscriber : targets) {
+            subscriber.pending.put(lotId, delta);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // shutting down
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Iterator<Map.Entry<Long, Map<String, Object>>> it = subscriber.pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Map<String, Object>> entry = it.next();
+                // remove(key, value): a newer delta that arrived meanwhile stays for the next pass
+                Map<String, Object> delta = entry.getValue();
+                if (!subscriber.pending.remove(entry.getKey(), delta)) {
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("availability")
+                        .id(String.valueOf(sequence.incrementAndGet()))
+                        .data(delta, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away
+            unsubscribe(subscriber);
+            subscriber.pending.clear();
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.pending.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    // comment frames keep proxies from closing idle streams and flush out dead clients
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                senders.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(subscriber);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // shutting down
+                return;
+            }
+        }
+    }
+
+    private static Map<String, Object> delta(Long lotId, LotSearchRow row) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("lotId", lotId);
+        if (row == null) {
+            // lot deleted or no longer listed
+            delta.put("removed", true);
+            return delta;
+        }
+        delta.put("availableSlots", row.getAvailableSlots());
+        delta.put("totalSlots", row.getTotalSlots());
+        delta.put("status", row.getAvailableSlots() > 0 ? "available" : "busy");
+        return delta;
+    }
+
+    /* ================= SUBSCRIBER ================= */
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<Long> lotIds;
+        // lotId -> latest unsent delta
+        final Map<Long, Map<String, Object>> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Set<Long> lotIds) {
+            this.emitter = emitter;
+            this.lotIds = lotIds;
+        }
+    }
+}
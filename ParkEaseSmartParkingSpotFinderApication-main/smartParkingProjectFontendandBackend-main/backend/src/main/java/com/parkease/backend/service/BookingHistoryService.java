@@ -1,14 +1,21 @@
 package com.parkease.backend.service;
 
+import com.parkease.backend.dto.BookingCursor;
+import com.parkease.backend.dto.BookingHistoryPage;
 import com.parkease.backend.dto.BookingHistoryResponse;
 import com.parkease.backend.entity.*;
+import com.parkease.backend.enumtype.BookingStatus;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class BookingHistoryService {
@@ -27,22 +34,30 @@ public class BookingHistoryService {
         this.bookingRepository = bookingRepository;
     }
 
-    public List<BookingHistoryResponse> getHistory(String email) {
+    /** One page of the finished bookings of all the provider's lots, newest endTime first, after {@code cursor}. */
+    public BookingHistoryPage getHistory(String email, BookingCursor cursor, int limit) {
 
-        User provider = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Provider not found"));
-
-        ParkingLot lot = parkingLotRepository.findByProvider(provider)
-                .stream().findFirst()
-                .orElseThrow(() -> new RuntimeException("Parking lot not found"));
+        Map<Long, String> lotNames = getLotNames(email);
 
         DateTimeFormatter timeFmt = DateTimeFormatter.ofPattern("HH:mm");
         DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("dd MMM yyyy");
 
-        return bookingRepository.findBookingHistory(lot.getId())
+        List<Booking> bookings = bookingRepository.findBookingHistory(
+                lotNames.keySet(), cursor.getTime(), cursor.getId(), BookingCursor.page(limit));
+
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            Booking last = bookings.get(limit - 1);
+            nextCursor = new BookingCursor(last.getEndTime(), last.getId()).encode();
+        }
+
+        List<BookingHistoryResponse> items = bookings
                 .stream()
                 .map(b -> new BookingHistoryResponse(
                         b.getId(),
+                        b.getParkingLot().getId(),
+                        lotNames.get(b.getParkingLot().getId()),
                         b.getDriver().getFullName(),
                         b.getVehicleNumber(),
                         b.getParkingSlot().getSlotNumber(),
@@ -55,6 +70,58 @@ public class BookingHistoryService {
                         b.getEndTime().format(dateFmt)
                 ))
                 .toList();
+        return new BookingHistoryPage(items, nextCursor);
+    }
+
+    /** Completed / cancelled counts per lot and over all lots, from one grouped query. */
+    public Map<String, Object> getSummary(String email) {
+
+        Map<Long, String> lotNames = getLotNames(email);
+
+        // lotId -> [completed, cancelled]
+        Map<Long, long[]> counts = new HashMap<>();
+        for (Object[] row : bookingRepository.countFinishedByLot(lotNames.keySet())) {
+            long[] count = counts.computeIfAbsent((Long) row[0], id -> new long[2]);
+            count[row[1] == BookingStatus.COMPLETED ? 0 : 1] += (Long) row[2];
+        }
+
+        long completed = 0;
+        long cancelled = 0;
+        List<Map<String, Object>> lots = new ArrayList<>();
+        for (Map.Entry<Long, String> lot : lotNames.entrySet()) {
+            long[] count = counts.getOrDefault(lot.getKey(), new long[2]);
+            completed += count[0];
+            cancelled += count[1];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("lotId", lot.getKey());
+            row.put("name", lot.getValue());
+            row.put("completed", count[0]);
+            row.put("cancelled", count[1]);
+            row.put("total", count[0] + count[1]);
+            lots.add(row);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("completed", completed);
+        summary.put("cancelled", cancelled);
+        summary.put("total", completed + cancelled);
+        summary.put("lots", lots);
+        return summary;
+    }
+
+    // lotId -> name of every lot the provider owns, in lot order
+    private Map<Long, String> getLotNames(String email) {
+        User provider = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Provider not found"));
+
+        List<ParkingLot> lots = parkingLotRepository.findByProvider(provider);
+        if (lots.isEmpty()) {
+            throw new RuntimeException("Parking lot not found");
+        }
+
+        Map<Long, String> lotNames = new LinkedHashMap<>();
+        lots.forEach(lot -> lotNames.put(lot.getId(), lot.getName()));
+        return lotNames;
     }
 
     private int calculateAmount(Booking b) {
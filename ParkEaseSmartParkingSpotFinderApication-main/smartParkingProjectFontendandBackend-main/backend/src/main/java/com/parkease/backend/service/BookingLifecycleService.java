@@ -0,0 +1,240 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves bookings through their lifecycle as time passes:
+ * ACTIVE → EXITING shortly before endTime, then → COMPLETED at endTime, which
+ * also frees the slot.
+ *
+ * Every pending transition sits in a hierarchical {@link TimingWheel} loaded
+ * from the DB at startup and fed by {@link BookingService} as bookings are
+ * created. A one-second tick drains whatever became due and applies it as a
+ * few bulk UPDATEs instead of saving bookings one by one. Cancelled or
+ * manually ended bookings are not removed from the wheel; their timers are
+ * simply skipped because the status no longer matches when they fire.
+ * A chunk whose UPDATE fails is put back and tried again on the next tick.
+ *
+ * NO_SHOW is never assigned here: a booking is ACTIVE from the moment it is
+ * made and nothing records the driver's arrival, so a no-show cannot be told
+ * apart. It is completed at endTime like any other, which frees its slot.
+ */
+@Service
+public class BookingLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLifecycleService.class);
+
+    // how long before endTime a booking is shown as "departing"
+    static final Duration EXIT_WINDOW = Duration.ofMinutes(5);
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<BookingStatus> EXITING_FROM = List.of(BookingStatus.ACTIVE);
+    private static final List<BookingStatus> COMPLETED_FROM = List.of(BookingStatus.ACTIVE, BookingStatus.EXITING);
+
+    private final BookingRepository bookingRepository;
+    private final ParkingSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WaitlistService waitlistService;
+
+    // guarded by this
+    private final TimingWheel<Transition> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+    private List<Transition> overdue = new ArrayList<>();
+
+    public BookingLifecycleService(
+            BookingRepository bookingRepository,
+            ParkingSlotRepository slotRepository,
+            SlotAvailabilityIndex availabilityIndex,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            WaitlistService waitlistService) {
+        this.bookingRepository = bookingRepository;
+        this.slotRepository = slotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.waitlistService = waitlistService;
+    }
+
+    /* ================= LOADING ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // row = [bookingId, status, endTime]
+        List<Object[]> rows = bookingRepository.findLifecycleTimers(COMPLETED_FROM);
+        for (Object[] row : rows) {
+            Long bookingId = (Long) row[0];
+            LocalDateTime endTime = (LocalDateTime) row[2];
+            if (row[1] == BookingStatus.ACTIVE) {
+                schedule(bookingId, endTime);
+            } else {
+                add(new Transition(bookingId, BookingStatus.COMPLETED), endTime);
+            }
+        }
+        log.debug("Booking lifecycle loaded {} open bookings", rows.size());
+    }
+
+    /** Registers the EXITING and COMPLETED timers of a newly committed booking. */
+    public void schedule(Long bookingId, LocalDateTime endTime) {
+        if (bookingId == null || endTime == null) {
+            return;
+        }
+        LocalDateTime exitAt = endTime.minus(EXIT_WINDOW);
+        if (exitAt.isAfter(LocalDateTime.now())) {
+            add(new Transition(bookingId, BookingStatus.EXITING), exitAt);
+        }
+        add(new Transition(bookingId, BookingStatus.COMPLETED), endTime);
+    }
+
+    private synchronized void add(Transition transition, LocalDateTime at) {
+        long deadline = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.add(deadline, transition)) {
+            overdue.add(transition);
+        }
+    }
+
+    /* ================= TICK ================= */
+
+    @Scheduled(fixedDelay = TICK_MS)
+    public void tick() {
+        List<Transition> due;
+        synchronized (this) {
+            due = overdue;
+            overdue = new ArrayList<>();
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Long> exiting = new ArrayList<>();
+        List<Long> completed = new ArrayList<>();
+        for (Transition t : due) {
+            (t.target == BookingStatus.EXITING ? exiting : completed).add(t.bookingId);
+        }
+
+        for (List<Long> chunk : chunks(exiting)) {
+            apply(chunk, BookingStatus.EXITING);
+        }
+        for (List<Long> chunk : chunks(completed)) {
+            apply(chunk, BookingStatus.COMPLETED);
+        }
+    }
+
+    // one chunk failing leaves the others alone; its transitions are retried on the next tick
+    private void apply(List<Long> bookingIds, BookingStatus target) {
+        try {
+            if (target == BookingStatus.EXITING) {
+                markExiting(bookingIds);
+            } else {
+                complete(bookingIds);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Booking lifecycle " + target + " for " + bookingIds.size()
+                    + " bookings failed, retrying: " + e.getMessage());
+            synchronized (this) {
+                for (Long bookingId : bookingIds) {
+                    overdue.add(new Transition(bookingId, target));
+                }
+            }
+        }
+    }
+
+    private void markExiting(List<Long> bookingIds) {
+        Integer updated = transactionTemplate.execute(status -> {
+            List<Object[]> rows = bookingRepository.findTransitionCandidates(bookingIds, EXITING_FROM);
+            List<Long> eligible = rows.stream().map(row -> (Long) row[0]).toList();
+            for (Object[] row : rows) {
+                eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                        (Long) row[1], (Long) row[0], BookingStatus.EXITING));
+            }
+            return eligible.isEmpty() ? 0 : bookingRepository.updateStatus(eligible, BookingStatus.EXITING);
+        });
+        if (updated != null && updated > 0) {
+            log.debug("{} bookings moved to EXITING", updated);
+        }
+    }
+
+    private void complete(List<Long> bookingIds) {
+        // row = [bookingId, lotId, slotId, startTime, endTime]
+        List<Object[]> completed = transactionTemplate.execute(status -> {
+            List<Object[]> eligible = bookingRepository.findTransitionCandidates(bookingIds, COMPLETED_FROM);
+            if (eligible.isEmpty()) {
+                return eligible;
+            }
+            bookingRepository.updateStatus(eligible.stream().map(row -> (Long) row[0]).toList(),
+                    BookingStatus.COMPLETED);
+            List<Long> slotIds = eligible.stream().map(row -> (Long) row[2]).filter(id -> id != null)
+                    .distinct().toList();
+            if (!slotIds.isEmpty()) {
+                // only slots still occupied are actually freed
+                for (Object[] freed : slotRepository.countOccupiedByLot(slotIds)) {
+                    eventPublisher.publishEvent(new OccupancyChangedEvent(
+                            (Long) freed[0], -((Number) freed[1]).intValue()));
+                }
+                slotRepository.releaseSlots(slotIds);
+            }
+            for (Object[] row : eligible) {
+                eventPublisher.publishEvent(new BookingWindowChangedEvent(
+                        (Long) row[1], (LocalDateTime) row[3], (LocalDateTime) row[4]));
+                eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                        (Long) row[1], (Long) row[0], BookingStatus.COMPLETED,
+                        (LocalDateTime) row[3], (LocalDateTime) row[4]));
+            }
+            return eligible;
+        });
+        if (completed == null || completed.isEmpty()) {
+            return;
+        }
+
+        // committed: free the slots in the availability index too, then offer them to waitlisted drivers
+        for (Object[] row : completed) {
+            if (row[1] != null && row[2] != null) {
+                availabilityIndex.markReleased((Long) row[1], (Long) row[2], (LocalDateTime) row[3]);
+                waitlistService.onSlotReleased((Long) row[1]);
+            }
+        }
+        log.debug("{} bookings auto-completed", completed.size());
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static final class Transition {
+        private final Long bookingId;
+        private final BookingStatus target;
+
+        Transition(Long bookingId, BookingStatus target) {
+            this.bookingId = bookingId;
+            this.target = target;
+        }
+    }
+}
@@ -1,39 +1,236 @@
 package com.parkease.backend.service;
 
+import com.parkease.backend.dto.FleetBookingItem;
 import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.ParkingSlot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.ParkingSlotRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
     private final BookingRepository bookingRepository;
     private final ParkingSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final SlotAllocator slotAllocator;
+    private final ParkingLotRepository parkingLotRepository;
+    private final PaymentService paymentService;
+    private final BookingLifecycleService lifecycleService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WaitlistService waitlistService;
+
+    // bounded retries when the chosen slot was changed by a concurrent writer
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
 
     public BookingService(
             BookingRepository bookingRepository,
-            ParkingSlotRepository slotRepository) {
+            ParkingSlotRepository slotRepository,
+            SlotAvailabilityIndex availabilityIndex,
+            SlotAllocator slotAllocator,
+            ParkingLotRepository parkingLotRepository,
+            PaymentService paymentService,
+            BookingLifecycleService lifecycleService,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            WaitlistService waitlistService) {
         this.bookingRepository = bookingRepository;
         this.slotRepository = slotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.slotAllocator = slotAllocator;
+        this.parkingLotRepository = parkingLotRepository;
+        this.paymentService = paymentService;
+        this.lifecycleService = lifecycleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Reserves the first free slot of the lot and books it, each attempt in its
+     * own transaction. On an optimistic-lock conflict (or a slot that turns out
+     * to be occupied already) the slot is re-synced from the DB and the next
+     * free slot is selected instead of failing the request.
+     *
+     * The driver is charged in the same transaction; provider-side payment work
+     * is queued in the outbox.
+     */
+    public Booking bookFirstAvailable(User driver, ParkingLot lot, String vehicleNumber, VehicleType vehicleType,
+            LocalDateTime startTime, LocalDateTime endTime, double totalAmount, String paymentMethod) {
+
+        for (int attempt = 1; attempt <= MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            Long slotId = slotAllocator.reserve(lot.getId(), startTime, endTime, vehicleType)
+                    .orElseThrow(() -> new RuntimeException("No available slots found for this time range."));
+            try {
+                return bookReservedSlot(driver, lot, slotId, vehicleNumber, startTime, endTime, totalAmount,
+                        paymentMethod);
+            } catch (ObjectOptimisticLockingFailureException | IllegalStateException e) {
+                log.debug("Slot {} conflicted on attempt {}: {}", slotId, attempt, e.getMessage());
+                slotAllocator.release(lot.getId(), slotId, startTime);
+                slotAllocator.resync(lot.getId(), slotId);
+            } catch (RuntimeException e) {
+                slotAllocator.release(lot.getId(), slotId, startTime);
+                throw e;
+            }
+        }
+        throw new RuntimeException("Slots are being booked heavily right now, please retry.");
+    }
+
+    /**
+     * Turns a slot the caller already reserved (e.g. a confirmed hold) into a
+     * booking. If the slot was taken by a concurrent writer the reservation is
+     * dropped and the normal first-available path picks another slot.
+     */
+    public Booking bookReserved(User driver, ParkingLot lot, Long slotId, String vehicleNumber,
+            VehicleType vehicleType, LocalDateTime startTime, LocalDateTime endTime, double totalAmount,
+            String paymentMethod) {
+        try {
+            return bookReservedSlot(driver, lot, slotId, vehicleNumber, startTime, endTime, totalAmount,
+                    paymentMethod);
+        } catch (ObjectOptimisticLockingFailureException | IllegalStateException e) {
+            slotAllocator.release(lot.getId(), slotId, startTime);
+            slotAllocator.resync(lot.getId(), slotId);
+            return bookFirstAvailable(driver, lot, vehicleNumber, vehicleType, startTime, endTime, totalAmount,
+                    paymentMethod);
+        } catch (RuntimeException e) {
+            releaseReserved(lot.getId(), slotId, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back a slot the caller reserved but will not book, and offers it
+     * to the next waitlisted driver.
+     */
+    public void releaseReserved(Long lotId, Long slotId, LocalDateTime startTime) {
+        slotAllocator.release(lotId, slotId, startTime);
+        waitlistService.onSlotReleased(lotId);
+    }
+
+    private Booking bookReservedSlot(User driver, ParkingLot lot, Long slotId, String vehicleNumber,
+            LocalDateTime startTime, LocalDateTime endTime, double totalAmount, String paymentMethod) {
+        return transactionTemplate.execute(status -> {
+            ParkingSlot slot = slotRepository.findAllForBooking(List.of(slotId)).stream().findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Slot no longer exists"));
+            Booking booking = startBooking(driver, lot, slot, vehicleNumber, startTime, endTime);
+            paymentService.chargeBooking(booking, totalAmount, paymentMethod);
+            return booking;
+        });
+    }
+
+    /**
+     * Books a whole fleet in one transaction. Every slot is reserved in memory
+     * first, then slots and bookings are written with saveAll, the driver's
+     * wallet is debited once and one outbox event per booking is queued for the
+     * provider side. If any vehicle can't be placed nothing is booked and all
+     * reservations are released.
+     */
+    public List<Booking> bookBatch(User driver, List<FleetBookingItem> items, String paymentMethod) {
+        List<Long> reserved = new ArrayList<>();
+        try {
+            for (FleetBookingItem item : items) {
+                reserved.add(slotAllocator
+                        .reserve(item.getLotId(), item.getStartTime(), item.getEndTime(), item.getVehicleType())
+                        .orElseThrow(() -> new RuntimeException(
+                                "Not enough free slots in lot #" + item.getLotId() + " for this time range.")));
+            }
+
+            return transactionTemplate.execute(status -> {
+                Map<Long, ParkingLot> lots = parkingLotRepository
+                        .findAllById(items.stream().map(FleetBookingItem::getLotId).distinct().toList())
+                        .stream().collect(Collectors.toMap(ParkingLot::getId, Function.identity()));
+                Map<Long, ParkingSlot> slots = slotRepository.findAllForBooking(reserved.stream().distinct().toList())
+                        .stream().collect(Collectors.toMap(ParkingSlot::getId, Function.identity()));
+
+                List<Booking> bookings = new ArrayList<>();
+                List<Booking> occupying = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                    FleetBookingItem item = items.get(i);
+                    ParkingSlot slot = slots.get(reserved.get(i));
+                    // the allocator keeps the batch's own bookings apart; this guards against committed ones
+                    if (slot == null || bookingRepository.existsOverlapping(slot.getId(), item.getStartTime(),
+                            item.getEndTime(), SlotAvailabilityIndex.BLOCKING_STATUSES)) {
+                        throw new IllegalStateException("Slot already booked for this time range");
+                    }
+
+                    Booking booking = new Booking();
+                    booking.setDriver(driver);
+                    booking.setParkingLot(lots.get(item.getLotId()));
+                    booking.setParkingSlot(slot);
+                    booking.setVehicleNumber(item.getVehicleNumber());
+                    booking.setStartTime(item.getStartTime());
+                    booking.setEndTime(item.getEndTime());
+                    booking.setTotalAmount(item.getAmount());
+                    booking.setStatus(BookingStatus.ACTIVE);
+                    bookings.add(booking);
+                    if (!slot.isOccupied()) {
+                        slot.setOccupied(true);
+                        occupying.add(booking);
+                    }
+                }
+
+                slotRepository.saveAll(slots.values());
+                List<Booking> saved = bookingRepository.saveAll(bookings);
+                saved.forEach(this::publishWindowChanged);
+                occupying.forEach(b -> publishOccupancy(b, 1));
+                saved.forEach(this::publishStatusChanged);
+                paymentService.chargeBatch(saved, paymentMethod);
+                afterCommit(() -> saved.forEach(b -> lifecycleService.schedule(b.getId(), b.getEndTime())));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            for (int i = 0; i < reserved.size(); i++) {
+                FleetBookingItem item = items.get(i);
+                slotAllocator.release(item.getLotId(), reserved.get(i), item.getStartTime());
+            }
+            throw e;
+        }
     }
 
     @Transactional
     public Booking startBooking(User driver, ParkingLot lot, ParkingSlot slot, String vehicleNumber) {
+        LocalDateTime now = LocalDateTime.now();
+        // Fix: Initialize endTime to avoid "not-null property references a null" error
+        return startBooking(driver, lot, slot, vehicleNumber, now, now.plusHours(1));
+    }
 
-        if (slot.isOccupied()) {
-            throw new IllegalStateException("Slot already occupied");
+    @Transactional
+    public Booking startBooking(User driver, ParkingLot lot, ParkingSlot slot, String vehicleNumber,
+            LocalDateTime startTime, LocalDateTime endTime) {
+
+        // a slot can carry several bookings as long as their windows do not overlap
+        if (bookingRepository.existsOverlapping(slot.getId(), startTime, endTime,
+                SlotAvailabilityIndex.BLOCKING_STATUSES)) {
+            throw new IllegalStateException("Slot already booked for this time range");
         }
 
         // occupy slot
+        boolean wasOccupied = slot.isOccupied();
         slot.setOccupied(true);
         slotRepository.save(slot);
 
@@ -42,35 +239,112 @@ public class BookingService {
         booking.setParkingLot(lot);
         booking.setParkingSlot(slot);
         booking.setVehicleNumber(vehicleNumber);
-        booking.setStartTime(LocalDateTime.now());
-        // Fix: Initialize endTime to avoid "not-null property references a null" error
-        booking.setEndTime(booking.getStartTime().plusHours(1));
+        booking.setStartTime(startTime);
+        booking.setEndTime(endTime);
         booking.setStatus(BookingStatus.ACTIVE);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        publishWindowChanged(saved);
+        if (!wasOccupied) {
+            publishOccupancy(saved, 1);
+        }
+        publishStatusChanged(saved);
+        afterCommit(() -> {
+            availabilityIndex.markBooked(lot.getId(), slot.getId(), startTime, endTime);
+            lifecycleService.schedule(saved.getId(), endTime);
+        });
+        return saved;
     }
 
     @Transactional
     public void endBooking(Booking booking) {
 
+        // the whole originally booked window is freed, not just what is left of it
+        publishWindowChanged(booking);
         booking.setStatus(BookingStatus.COMPLETED);
         booking.setEndTime(LocalDateTime.now());
 
         ParkingSlot slot = booking.getParkingSlot();
+        boolean wasOccupied = slot.isOccupied();
         slot.setOccupied(false);
 
         slotRepository.save(slot);
         bookingRepository.save(booking);
+        if (wasOccupied) {
+            publishOccupancy(booking, -1);
+        }
+        publishStatusChanged(booking);
+        releaseAfterCommit(booking);
     }
 
     @Transactional
     public void cancelBooking(Booking booking) {
         booking.setStatus(BookingStatus.CANCELLED);
         ParkingSlot slot = booking.getParkingSlot();
+        boolean wasOccupied = slot != null && slot.isOccupied();
         if (slot != null) {
             slot.setOccupied(false);
             slotRepository.save(slot);
         }
         bookingRepository.save(booking);
+        publishWindowChanged(booking);
+        if (wasOccupied) {
+            publishOccupancy(booking, -1);
+        }
+        publishStatusChanged(booking);
+        releaseAfterCommit(booking);
+    }
+
+    /* ================= INDEX SYNC ================= */
+
+    // delivered to @TransactionalEventListener beans after commit
+    private void publishWindowChanged(Booking booking) {
+        if (booking.getParkingLot() != null) {
+            eventPublisher.publishEvent(new BookingWindowChangedEvent(
+                    booking.getParkingLot().getId(), booking.getStartTime(), booking.getEndTime()));
+        }
+    }
+
+    private void publishOccupancy(Booking booking, int delta) {
+        if (booking.getParkingLot() != null) {
+            eventPublisher.publishEvent(new OccupancyChangedEvent(booking.getParkingLot().getId(), delta));
+        }
+    }
+
+    private void publishStatusChanged(Booking booking) {
+        if (booking.getParkingLot() != null) {
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                    booking.getParkingLot().getId(), booking.getId(), booking.getStatus(),
+                    booking.getStartTime(), booking.getEndTime()));
+        }
+    }
+
+    private void releaseAfterCommit(Booking booking) {
+        if (booking.getParkingSlot() == null || booking.getParkingLot() == null) {
+            return;
+        }
+        Long lotId = booking.getParkingLot().getId();
+        Long slotId = booking.getParkingSlot().getId();
+        LocalDateTime start = booking.getStartTime();
+        afterCommit(() -> {
+            availabilityIndex.markReleased(lotId, slotId, start);
+            // hand the freed slot to the next waitlisted driver
+            waitlistService.onSlotReleased(lotId);
+        });
+    }
+
+    // The index must only reflect committed state, so defer updates until the
+    // surrounding transaction has committed.
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
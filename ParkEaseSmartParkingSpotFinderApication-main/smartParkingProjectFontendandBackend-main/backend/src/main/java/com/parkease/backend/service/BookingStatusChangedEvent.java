@@ -0,0 +1,40 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking of {@code lotId} enters {@code status}: ACTIVE on
+ * check-in, EXITING shortly before its end, COMPLETED or CANCELLED on
+ * check-out. Drives the provider live board and the occupancy forecast
+ * once the change is committed. The booking window is set where the
+ * publisher has it (always on COMPLETED; the end is the actual check-out).
+ */
+public class BookingStatusChangedEvent {
+
+    private final Long lotId;
+    private final Long bookingId;
+    private final BookingStatus status;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    public BookingStatusChangedEvent(Long lotId, Long bookingId, BookingStatus status) {
+        this(lotId, bookingId, status, null, null);
+    }
+
+    public BookingStatusChangedEvent(Long lotId, Long bookingId, BookingStatus status,
+            LocalDateTime startTime, LocalDateTime endTime) {
+        this.lotId = lotId;
+        this.bookingId = bookingId;
+        this.status = status;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public Long getLotId() { return lotId; }
+    public Long getBookingId() { return bookingId; }
+    public BookingStatus getStatus() { return status; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+}
@@ -0,0 +1,25 @@
+package com.parkease.backend.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a booking starts blocking or stops blocking a slot of
+ * {@code lotId} over [start, end). Listeners that cache derived availability
+ * use it to drop the affected entries once the change is committed.
+ */
+public class BookingWindowChangedEvent {
+
+    private final Long lotId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public BookingWindowChangedEvent(Long lotId, LocalDateTime start, LocalDateTime end) {
+        this.lotId = lotId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getLotId() { return lotId; }
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return end; }
+}
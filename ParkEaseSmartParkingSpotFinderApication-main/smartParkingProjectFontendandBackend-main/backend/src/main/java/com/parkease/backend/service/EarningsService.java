@@ -1,9 +1,11 @@
 package com.parkease.backend.service;
 
+import com.parkease.backend.dto.BookingCursor;
 import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -27,15 +29,16 @@ public class EarningsService {
         User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
+        LocalDate now = LocalDate.now();
+
+        // the summary only looks back 30 days, so never load the full history
         List<Booking> bookings =
-                bookingRepository.findCompletedBookingsForProvider(provider.getId());
+                bookingRepository.findCompletedBookingsAfter(provider.getId(), now.minusDays(30).atStartOfDay());
 
         double today = 0;
         double week = 0;
         double month = 0;
 
-        LocalDate now = LocalDate.now();
-
         for (Booking b : bookings) {
             LocalDate date = b.getEndTime().toLocalDate();
             double amount = calculateAmount(b);
@@ -55,7 +58,7 @@ public class EarningsService {
 
         response.put("balance", format(month));
 
-        response.put("recent", buildRecent(bookings));
+        response.put("recent", buildRecent(provider.getId()));
 
         return response;
     }
@@ -76,14 +79,15 @@ public class EarningsService {
         return "₹" + String.format("%,.0f", value);
     }
 
-    private List<Map<String, Object>> buildRecent(List<Booking> bookings) {
+    private List<Map<String, Object>> buildRecent(Long providerId) {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("dd MMM, yyyy");
 
         List<Map<String, Object>> list = new ArrayList<>();
 
-        bookings.stream()
-                .sorted(Comparator.comparing(Booking::getEndTime).reversed())
-                .limit(5)
+        // first keyset page of the (endTime, id) ordered history
+        BookingCursor first = BookingCursor.FIRST;
+        bookingRepository.findCompletedBookingsForProvider(providerId, first.getTime(), first.getId(),
+                        PageRequest.of(0, 5))
                 .forEach(b -> {
                     list.add(Map.of(
                             "id", b.getId(),
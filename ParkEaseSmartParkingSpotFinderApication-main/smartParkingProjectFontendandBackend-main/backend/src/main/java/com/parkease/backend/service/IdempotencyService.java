@@ -0,0 +1,216 @@
+package com.parkease.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.parkease.backend.entity.IdempotencyRecord;
+import com.parkease.backend.repository.IdempotencyRecordRepository;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a request retried with the same
+ * Idempotency-Key instead of running it again (double debits, duplicate
+ * ledger rows).
+ *
+ * Completed responses are kept in a bounded LRU map, so a retry is answered
+ * from memory; the DB copy covers keys evicted from the map and restarts.
+ * Both expire after {@link #RETENTION}. Only 2xx responses are stored: a
+ * rejected request (e.g. insufficient balance) can be retried with the same
+ * key once the client fixes it. A key reused with a different payload is
+ * rejected with 422 rather than answered with the other request's response.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+
+    // guarded by itself
+    private final Map<String, StoredResponse> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(IdempotencyRecordRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs {@code action} once per (principal, endpoint, key). Requests without
+     * a key run as before.
+     */
+    public ResponseEntity<?> execute(String key, String principal, String endpoint, Object request,
+            Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("message", HEADER + " is too long"));
+        }
+
+        String recordKey = principal + "|" + endpoint + "|" + key;
+        String requestHash = hash(request);
+        Optional<StoredResponse> stored = lookup(recordKey);
+        if (stored.isPresent()) {
+            return stored.get().replay(requestHash);
+        }
+
+        if (!inFlight.add(recordKey)) {
+            return ResponseEntity.status(409)
+                    .body(Map.of("message", "A request with this " + HEADER + " is still being processed"));
+        }
+        try {
+            // the previous holder may have finished between lookup() and add()
+            stored = cached(recordKey);
+            if (stored.isPresent()) {
+                return stored.get().replay(requestHash);
+            }
+
+            ResponseEntity<?> response = action.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                store(recordKey, requestHash, response);
+            }
+            return response;
+        } finally {
+            inFlight.remove(recordKey);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(RETENTION);
+        synchronized (cache) {
+            cache.values().removeIf(stored -> stored.storedAt.isBefore(cutoff));
+        }
+        int removed = repository.deleteOlderThan(cutoff);
+        if (removed > 0) {
+            System.out.println("DEBUG: Purged " + removed + " idempotency records");
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private Optional<StoredResponse> lookup(String recordKey) {
+        Optional<StoredResponse> stored = cached(recordKey);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        Optional<IdempotencyRecord> record = repository.findByRecordKey(recordKey);
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (record.get().getCreatedAt().isBefore(LocalDateTime.now().minus(RETENTION))) {
+            // past retention but not purged yet; drop it so the key can be stored again
+            repository.delete(record.get());
+            return Optional.empty();
+        }
+        StoredResponse response = new StoredResponse(record.get().getStatusCode(), record.get().getResponseBody(),
+                record.get().getRequestHash(), record.get().getCreatedAt());
+        synchronized (cache) {
+            cache.put(recordKey, response);
+        }
+        return Optional.of(response);
+    }
+
+    private Optional<StoredResponse> cached(String recordKey) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(recordKey);
+            if (stored != null && stored.storedAt.isBefore(LocalDateTime.now().minus(RETENTION))) {
+                cache.remove(recordKey);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(stored);
+        }
+    }
+
+    // hex SHA-256 of the payload as JSON with sorted keys; null if it cannot be serialized
+    private String hash(Object request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            byte[] json = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            System.err.println("ERROR: Could not hash idempotent request: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String recordKey, String requestHash, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            System.err.println("ERROR: Could not store idempotent response: " + e.getMessage());
+            return;
+        }
+
+        StoredResponse stored = new StoredResponse(response.getStatusCode().value(), body, requestHash,
+                LocalDateTime.now());
+        synchronized (cache) {
+            cache.put(recordKey, stored);
+        }
+        try {
+            repository.save(new IdempotencyRecord(recordKey, stored.status, stored.body, requestHash));
+        } catch (RuntimeException e) {
+            // the in-memory copy still protects retries on this instance
+            System.err.println("ERROR: Could not persist idempotency record: " + e.getMessage());
+        }
+    }
+
+    private static final class StoredResponse {
+        private final int status;
+        private final String body;
+        private final String requestHash;
+        private final LocalDateTime storedAt;
+
+        StoredResponse(int status, String body, String requestHash, LocalDateTime storedAt) {
+            this.status = status;
+            this.body = body;
+            this.requestHash = requestHash;
+            this.storedAt = storedAt;
+        }
+
+        ResponseEntity<?> replay(String requestHash) {
+            // records stored before hashing have no hash to compare
+            if (this.requestHash != null && requestHash != null && !this.requestHash.equals(requestHash)) {
+                return ResponseEntity.status(422).body(Map.of(
+                        "message", HEADER + " was already used for a different request"));
+            }
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Idempotent-Replayed", "true")
+                    .body(body);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.parkease.backend.service;
 
 import com.parkease.backend.dto.ActiveBookingResponse;
+import com.parkease.backend.dto.LiveBookingRow;
 import com.parkease.backend.dto.LiveStatusResponse;
 import com.parkease.backend.entity.*;
 import com.parkease.backend.enumtype.BookingStatus;
@@ -12,11 +13,19 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class LiveStatusService {
 
+    static final List<BookingStatus> LIVE_STATUSES = List.of(BookingStatus.ACTIVE, BookingStatus.EXITING);
+
+    private static final DateTimeFormatter HOUR_MINUTE = DateTimeFormatter.ofPattern("HH:mm");
+
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final BookingRepository bookingRepository;
@@ -31,67 +40,96 @@ public class LiveStatusService {
         this.bookingRepository = bookingRepository;
     }
 
+    /** Live board over all of the provider's lots: totals, per-lot figures and the bookings. */
     public LiveStatusResponse getLiveStatus(String email) {
 
-        User provider = userRepository.findByEmail(email)
+        User provider = getProvider(email);
+        List<ParkingLot> lots = getProviderLots(provider);
+
+        // one query for every lot, lot / driver / slot joined in
+        List<LiveBookingRow> activeBookings =
+                bookingRepository.findLiveRowsForProvider(provider.getId(), LIVE_STATUSES);
+
+        return board(activeBookings, lots, LocalDateTime.now());
+    }
+
+    User getProvider(String email) {
+        return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
+    }
+
+    List<ParkingLot> getProviderLots(User provider) {
+        List<ParkingLot> lots = parkingLotRepository.findByProvider(provider);
+        if (lots.isEmpty()) {
+            throw new RuntimeException("Parking lot not found");
+        }
+        return lots;
+    }
+
+    /* ================= BOARD ================= */
 
-        ParkingLot lot = parkingLotRepository.findByProvider(provider)
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Parking lot not found"));
-
-        List<Booking> activeBookings =
-          bookingRepository.findActiveBookingsForLot(
-        lot.getId(),
-        List.of(BookingStatus.ACTIVE, BookingStatus.EXITING)
-);
-
-
-
-        int occupied = (int) activeBookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.ACTIVE)
-                .count();
-
-        int exiting = (int) activeBookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.EXITING)
-                .count();
-
-        int available = lot.getTotalSlots() - occupied;
-
-        List<ActiveBookingResponse> bookings = activeBookings.stream().map(b -> {
-
-            String timeRange =
-                    b.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm"))
-                            + " - " +
-                            b.getEndTime().format(DateTimeFormatter.ofPattern("HH:mm"));
-
-            long minutesLeft =
-                    Duration.between(LocalDateTime.now(), b.getEndTime()).toMinutes();
-
-            String timeLeft =
-                    minutesLeft <= 0
-                            ? "Ending"
-                            : minutesLeft > 60
-                                ? (minutesLeft / 60) + "h " + (minutesLeft % 60) + "m"
-                                : minutesLeft + " mins";
-
-            return new ActiveBookingResponse(
-                    b.getId(),
-                    b.getDriver().getFullName(),
-                    b.getVehicleNumber(),
-                    b.getParkingSlot().getSlotNumber(), // ✅ FIXED
-                    timeRange,
-                    timeLeft,
-                    b.getStatus() == BookingStatus.EXITING // ✅ FIXED
-                            ? "departing"
-                            : "parking"
-            );
-        }).toList();
-
-        return new LiveStatusResponse(
-                new LiveStatusResponse.Stats(occupied, available, exiting),
-                bookings
+    static LiveStatusResponse board(Collection<LiveBookingRow> rows, List<ParkingLot> lots, LocalDateTime now) {
+        List<ActiveBookingResponse> bookings = rows.stream().map(b -> toResponse(b, now)).toList();
+        List<LiveStatusResponse.LotStats> perLot = lotStats(rows, lots);
+        return new LiveStatusResponse(total(perLot), perLot, bookings);
+    }
+
+    static List<LiveStatusResponse.LotStats> lotStats(Collection<LiveBookingRow> rows, List<ParkingLot> lots) {
+        Map<Long, int[]> counts = new HashMap<>();
+        for (LiveBookingRow b : rows) {
+            // [occupied, exiting]
+            int[] count = counts.computeIfAbsent(b.getLotId(), id -> new int[2]);
+            count[b.getStatus() == BookingStatus.EXITING ? 1 : 0]++;
+        }
+        List<LiveStatusResponse.LotStats> stats = new ArrayList<>(lots.size());
+        for (ParkingLot lot : lots) {
+            int[] count = counts.getOrDefault(lot.getId(), new int[2]);
+            stats.add(new LiveStatusResponse.LotStats(lot.getId(), lot.getName(),
+                    count[0], lot.getTotalSlots() - count[0], count[1]));
+        }
+        return stats;
+    }
+
+    static LiveStatusResponse.Stats total(List<LiveStatusResponse.LotStats> lots) {
+        int occupied = 0;
+        int available = 0;
+        int exiting = 0;
+        for (LiveStatusResponse.Stats lot : lots) {
+            occupied += lot.getOccupied();
+            available += lot.getAvailable();
+            exiting += lot.getExiting();
+        }
+        return new LiveStatusResponse.Stats(occupied, available, exiting);
+    }
+
+    static ActiveBookingResponse toResponse(LiveBookingRow b, LocalDateTime now) {
+        String timeRange =
+                b.getStartTime().format(HOUR_MINUTE)
+                        + " - " +
+                        b.getEndTime().format(HOUR_MINUTE);
+
+        return new ActiveBookingResponse(
+                b.getId(),
+                b.getLotId(),
+                b.getLotName(),
+                b.getDriverName(),
+                b.getVehicleNumber(),
+                b.getSlotNumber(),
+                timeRange,
+                timeLeft(b.getEndTime(), now),
+                b.getStatus() == BookingStatus.EXITING
+                        ? "departing"
+                        : "parking"
         );
     }
+
+    static String timeLeft(LocalDateTime endTime, LocalDateTime now) {
+        long minutesLeft = Duration.between(now, endTime).toMinutes();
+
+        return minutesLeft <= 0
+                ? "Ending"
+                : minutesLeft > 60
+                    ? (minutesLeft / 60) + "h " + (minutesLeft % 60) + "m"
+                    : minutesLeft + " mins";
+    }
 }
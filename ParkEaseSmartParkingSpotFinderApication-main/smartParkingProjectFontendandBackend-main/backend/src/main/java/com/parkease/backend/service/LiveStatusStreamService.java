@@ -0,0 +1,321 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.LiveBookingRow;
+import com.parkease.backend.dto.LiveStatusResponse;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Push version of the provider live board ({@link LiveStatusService}).
+ *
+ * A subscriber first gets a "snapshot" event (the same body as the polled
+ * endpoint), then only what changed:
+ * - "checkin"  a booking became ACTIVE (booking row + stats),
+ * - "exiting"  a booking entered its exit window,
+ * - "checkout" a booking completed or was cancelled,
+ * - "tick"     bookings whose time-left label moved, every {@link #TICK_MS}.
+ *
+ * A provider's board covers all of their lots and lives in memory only while
+ * someone watches it. It is loaded with one query on the first subscribe
+ * and then patched from {@link BookingStatusChangedEvent}s after commit;
+ * time-left is computed from the stored end times. With nothing changing, a
+ * watched board costs no queries at all, and events for unwatched lots are
+ * ignored. Lots added while a board is open show up on the next subscribe.
+ */
+@Service
+public class LiveStatusStreamService {
+
+    public static final long TIMEOUT_MS = 30 * 60 * 1000L;
+    static final long TICK_MS = 30_000;
+
+    // a client this far behind is dropped; it reconnects and gets a fresh snapshot
+    private static final int MAX_QUEUED = 256;
+    private static final int SENDER_THREADS = 2;
+
+    private final LiveStatusService liveStatusService;
+    private final BookingRepository bookingRepository;
+
+    // providerId -> board, only while subscribed
+    private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+    // lotId -> board of its provider, for routing booking events
+    private final Map<Long, Board> boardsByLot = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, r -> {
+        Thread t = new Thread(r, "live-status-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public LiveStatusStreamService(LiveStatusService liveStatusService, BookingRepository bookingRepository) {
+        this.liveStatusService = liveStatusService;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+        boards.values().forEach(board -> board.subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    /* ================= SUBSCRIBE ================= */
+
+    public SseEmitter subscribe(String email) {
+        User provider = liveStatusService.getProvider(email);
+        List<ParkingLot> lots = liveStatusService.getProviderLots(provider);
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, provider.getId());
+
+        // registered before loading, so a change committed meanwhile is applied on top
+        while (true) {
+            Board board = boards.computeIfAbsent(provider.getId(), Board::new);
+            synchronized (board) {
+                if (board.closed) {
+                    continue;
+                }
+                board.subscribers.add(subscriber);
+                board.lots = lots;
+                lots.forEach(lot -> boardsByLot.put(lot.getId(), board));
+                if (!board.loaded) {
+                    for (LiveBookingRow row : bookingRepository.findLiveRowsForProvider(provider.getId(),
+                            LiveStatusService.LIVE_STATUSES)) {
+                        board.rows.put(row.getId(), row);
+                    }
+                    board.loaded = true;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                board.rows.values().forEach(row -> board.timeLeft.put(row.getId(),
+                        LiveStatusService.timeLeft(row.getEndTime(), now)));
+                subscriber.enqueue("snapshot", LiveStatusService.board(board.rows.values(), board.lots, now));
+            }
+            break;
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        Board board = boards.get(subscriber.providerId);
+        if (board == null) {
+            return;
+        }
+        synchronized (board) {
+            if (board.subscribers.remove(subscriber) && board.subscribers.isEmpty()) {
+                // nobody watching: stop patching it, the next subscriber reloads
+                board.closed = true;
+                boards.remove(subscriber.providerId, board);
+                board.lots.forEach(lot -> boardsByLot.remove(lot.getId(), board));
+            }
+        }
+    }
+
+    /* ================= DELTAS ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Board board = event.getLotId() != null ? boardsByLot.get(event.getLotId()) : null;
+        if (board == null) {
+            return;
+        }
+        List<Subscriber> targets;
+        synchronized (board) {
+            if (board.closed || !board.loaded) {
+                return;
+            }
+            Long bookingId = event.getBookingId();
+            Map<String, Object> delta = new LinkedHashMap<>();
+            String name;
+            LocalDateTime now = LocalDateTime.now();
+            switch (event.getStatus()) {
+                case ACTIVE, EXITING -> {
+                    LiveBookingRow row = board.rows.get(bookingId);
+                    if (row == null) {
+                        // new on this board: one lookup for driver name and slot number
+                        row = bookingRepository.findLiveRow(bookingId).orElse(null);
+                        if (row == null || !LiveStatusService.LIVE_STATUSES.contains(row.getStatus())) {
+                            return;
+                        }
+                    }
+                    if (row.getStatus() != event.getStatus()) {
+                        row = row.withStatus(event.getStatus());
+                    }
+                    board.rows.put(bookingId, row);
+                    board.timeLeft.put(bookingId, LiveStatusService.timeLeft(row.getEndTime(), now));
+                    name = event.getStatus() == BookingStatus.ACTIVE ? "checkin" : "exiting";
+                    delta.put("booking", LiveStatusService.toResponse(row, now));
+                }
+                case COMPLETED, CANCELLED -> {
+                    if (board.rows.remove(bookingId) == null) {
+                        return;
+                    }
+                    board.timeLeft.remove(bookingId);
+                    name = "checkout";
+                    delta.put("id", bookingId);
+                }
+                default -> {
+                    return;
+                }
+            }
+            List<LiveStatusResponse.LotStats> perLot = LiveStatusService.lotStats(board.rows.values(), board.lots);
+            delta.put("stats", LiveStatusService.total(perLot));
+            perLot.stream()
+                    .filter(lot -> lot.getLotId().equals(event.getLotId()))
+                    .findFirst()
+                    .ifPresent(lot -> delta.put("lot", lot));
+            targets = new ArrayList<>(board.subscribers);
+            targets.forEach(s -> s.enqueue(name, delta));
+        }
+        targets.forEach(this::schedule);
+    }
+
+    // time-left labels are derived from end times, so ticks need no query
+    @Scheduled(fixedDelay = TICK_MS)
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Board board : boards.values()) {
+            List<Subscriber> targets;
+            synchronized (board) {
+                if (board.closed || !board.loaded) {
+                    continue;
+                }
+                List<Map<String, Object>> changed = new ArrayList<>();
+                for (LiveBookingRow row : board.rows.values()) {
+                    String label = LiveStatusService.timeLeft(row.getEndTime(), now);
+                    if (!label.equals(board.timeLeft.put(row.getId(), label))) {
+                        changed.add(Map.of("id", row.getId(), "timeLeft", label));
+                    }
+                }
+                targets = new ArrayList<>(board.subscribers);
+                if (changed.isEmpty()) {
+                    // keeps proxies from closing the idle stream and flushes out dead clients
+                    targets.forEach(Subscriber::ping);
+                } else {
+                    targets.forEach(s -> s.enqueue("tick", changed));
+                }
+            }
+            targets.forEach(this::schedule);
+        }
+    }
+
+    /* ================= SENDING ================= */
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // shutting down
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder next;
+            while ((next = subscriber.queue.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                subscriber.emitter.send(next);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away
+            unsubscribe(subscriber);
+            subscriber.clear();
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Long providerId;
+        final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long providerId) {
+            this.emitter = emitter;
+            this.providerId = providerId;
+        }
+
+        void enqueue(String name, Object data) {
+            add(SseEmitter.event()
+                    .name(name)
+                    .id(String.valueOf(sequence.incrementAndGet()))
+                    .data(data, MediaType.APPLICATION_JSON));
+        }
+
+        void ping() {
+            add(SseEmitter.event().comment("ping"));
+        }
+
+        private void add(SseEmitter.SseEventBuilder event) {
+            if (queued.incrementAndGet() > MAX_QUEUED) {
+                // the rejected event was never queued
+                queued.decrementAndGet();
+                clear();
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+        }
+
+        // polls one by one so the count stays in step with a drain running alongside
+        void clear() {
+            while (queue.poll() != null) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    /* ================= BOARD ================= */
+
+    // guarded by its own monitor
+    private static final class Board {
+        final Long providerId;
+        final Set<Subscriber> subscribers = new HashSet<>();
+        // bookingId -> row, in check-in order
+        final Map<Long, LiveBookingRow> rows = new LinkedHashMap<>();
+        // bookingId -> last time-left label sent
+        final Map<Long, String> timeLeft = new HashMap<>();
+        List<ParkingLot> lots = List.of();
+        boolean loaded;
+        boolean closed;
+
+        Board(Long providerId) {
+            this.providerId = providerId;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid over the locations of searchable lots (active, approved
+ * provider, coordinates set), so "lots near me" does not load every lot.
+ *
+ * The world is cut into fixed cells of {@link #CELL_DEGREES} (about 5.5 km
+ * north-south); a radius query only looks at the cells overlapping the
+ * circle's bounding box and keeps the k closest hits in a bounded heap.
+ *
+ * Loaded from the database on first use and kept current by
+ * {@link #refresh(Long)} / {@link #refreshProvider(Long)} from the places
+ * that add, edit, toggle or delete lots and approve providers.
+ */
+@Component
+public class LotGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LotGeoIndex.class);
+
+    public static final double DEFAULT_RADIUS_METERS = 5_000;
+    public static final double MAX_RADIUS_METERS = 50_000;
+    public static final int DEFAULT_K = 20;
+    public static final int MAX_K = 200;
+
+    static final double CELL_DEGREES = 0.05;
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int LNG_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private final ParkingLotRepository parkingLotRepository;
+
+    private final Map<Long, LotPoint> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public LotGeoIndex(ParkingLotRepository parkingLotRepository) {
+        this.parkingLotRepository = parkingLotRepository;
+    }
+
+    /* ================= SEARCH ================= */
+
+    /** Up to {@code k} searchable lots within {@code radiusMeters}, nearest first. */
+    public List<Hit> search(double lat, double lng, double radiusMeters, int k) {
+        ensureLoaded();
+        // max-heap on distance: the head is the farthest of the k kept so far
+        PriorityQueue<Hit> nearest = new PriorityQueue<>(Comparator.comparingDouble(Hit::getDistanceMeters).reversed());
+        for (Long lotId : candidates(lat, lng, radiusMeters)) {
+            LotPoint point = points.get(lotId);
+            if (point == null) {
+                continue;
+            }
+            double distance = distanceMeters(lat, lng, point.lat, point.lng);
+            if (distance > radiusMeters) {
+                continue;
+            }
+            if (nearest.size() < k) {
+                nearest.add(new Hit(lotId, distance));
+            } else if (distance < nearest.peek().getDistanceMeters()) {
+                nearest.poll();
+                nearest.add(new Hit(lotId, distance));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceMeters));
+        return hits;
+    }
+
+    /** Requested radius in meters, clamped; null means the default. */
+    public static double radius(Double requested) {
+        if (requested == null) {
+            return DEFAULT_RADIUS_METERS;
+        }
+        return Math.max(1, Math.min(requested, MAX_RADIUS_METERS));
+    }
+
+    public static int k(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_K;
+        }
+        return Math.max(1, Math.min(requested, MAX_K));
+    }
+
+    /** Message for an unusable lat/lng pair, or null if it can be searched. */
+    public static String invalidCenter(Double lat, Double lng) {
+        if (lat == null || lng == null) {
+            return "lat and lng must be given together";
+        }
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return "lat must be within [-90, 90] and lng within [-180, 180]";
+        }
+        return null;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return points.size();
+    }
+
+    private Collection<Long> candidates(double lat, double lng, double radiusMeters) {
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + latSpan)));
+        double lngSpan = latSpan / cos;
+        int minRow = row(lat - latSpan);
+        int maxRow = row(lat + latSpan);
+        int cols = (int) Math.floor((lng + lngSpan + 180) / CELL_DEGREES)
+                - (int) Math.floor((lng - lngSpan + 180) / CELL_DEGREES) + 1;
+
+        // a box with more cells than there are lots is cheaper to scan directly
+        if (lngSpan >= 180 || (long) (maxRow - minRow + 1) * cols > points.size()) {
+            return points.keySet();
+        }
+        List<Long> found = new ArrayList<>();
+        int firstCol = (int) Math.floor((lng - lngSpan + 180) / CELL_DEGREES);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = 0; c < cols; c++) {
+                Set<Long> cell = cells.get(cellKey(r, Math.floorMod(firstCol + c, LNG_CELLS)));
+                if (cell != null) {
+                    found.addAll(cell);
+                }
+            }
+        }
+        return found;
+    }
+
+    /* ================= UPDATES ================= */
+
+    /** Re-reads one lot (after commit when called inside a transaction); gone or hidden lots drop out. */
+    public void refresh(Long lotId) {
+        if (lotId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                if (!loaded) {
+                    // the first search loads everything, including this lot
+                    return;
+                }
+                remove(lotId);
+                parkingLotRepository.findSearchableLocation(lotId).forEach(this::add);
+            }
+        });
+    }
+
+    /** Re-reads all lots of a provider, e.g. after approval. */
+    public void refreshProvider(Long providerId) {
+        if (providerId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                if (!loaded) {
+                    return;
+                }
+                points.values().stream()
+                        .filter(p -> providerId.equals(p.providerId))
+                        .map(p -> p.lotId)
+                        .toList()
+                        .forEach(this::remove);
+                parkingLotRepository.findSearchableLocationsByProvider(providerId).forEach(this::add);
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<Object[]> rows = parkingLotRepository.findSearchableLocations();
+            rows.forEach(this::add);
+            loaded = true;
+            log.debug("Lot geo index loaded with {} lots", points.size());
+        }
+    }
+
+    // row = [lotId, latitude, longitude, providerId]; caller holds the lock
+    private void add(Object[] row) {
+        LotPoint point = new LotPoint((Long) row[0], (Double) row[1], (Double) row[2], (Long) row[3]);
+        points.put(point.lotId, point);
+        cells.computeIfAbsent(point.cell, c -> ConcurrentHashMap.newKeySet()).add(point.lotId);
+    }
+
+    // caller holds the lock
+    private void remove(Long lotId) {
+        LotPoint point = points.remove(lotId);
+        if (point == null) {
+            return;
+        }
+        Set<Long> cell = cells.get(point.cell);
+        if (cell != null) {
+            cell.remove(lotId);
+            if (cell.isEmpty()) {
+                cells.remove(point.cell);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /* ================= GEOMETRY ================= */
+
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double lat) {
+        int row = (int) Math.floor((lat + 90) / CELL_DEGREES);
+        return Math.max(0, Math.min(LAT_CELLS - 1, row));
+    }
+
+    private static long cellKey(int row, int col) {
+        return (long) row * LNG_CELLS + col;
+    }
+
+    private static long cellOf(double lat, double lng) {
+        int col = Math.floorMod((int) Math.floor((lng + 180) / CELL_DEGREES), LNG_CELLS);
+        return cellKey(row(lat), col);
+    }
+
+    /* ================= TYPES ================= */
+
+    private static final class LotPoint {
+        final Long lotId;
+        final double lat;
+        final double lng;
+        final Long providerId;
+        final long cell;
+
+        LotPoint(Long lotId, double lat, double lng, Long providerId) {
+            this.lotId = lotId;
+            this.lat = lat;
+            this.lng = lng;
+            this.providerId = providerId;
+            this.cell = cellOf(lat, lng);
+        }
+    }
+
+    public static final class Hit {
+        private final Long lotId;
+        private final double distanceMeters;
+
+        Hit(Long lotId, double distanceMeters) {
+            this.lotId = lotId;
+            this.distanceMeters = distanceMeters;
+        }
+
+        public Long getLotId() { return lotId; }
+        public double getDistanceMeters() { return distanceMeters; }
+    }
+}
@@ -0,0 +1,245 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.LotSearchRow;
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Immutable in-memory copy of the driver search rows (lot, owner, occupied
+ * count), so a map refresh is a memory read instead of a grouped query.
+ *
+ * Readers take whatever snapshot is current; writers build a new one and
+ * swap the reference, never touching a published snapshot. Changes patch a
+ * single lot by re-reading its row after commit:
+ * - booking start/end/cancel/auto-complete via {@link BookingWindowChangedEvent},
+ * - slot added/removed and lot added/edited/toggled/deleted via {@link #refresh(Long)}.
+ * Provider approval changes which lots are listed at all and triggers a
+ * full {@link #reload()}.
+ *
+ * Change listeners get (before, after) for every lot whose row changed;
+ * either side is null when a lot appears or disappears.
+ */
+@Component
+public class LotSearchSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(LotSearchSnapshot.class);
+
+    // per-lot re-reads must not apply out of order
+    private static final int STRIPES = 64;
+
+    private final ParkingLotRepository parkingLotRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // read: single-lot patches, write: full reload
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[STRIPES];
+    private final List<BiConsumer<LotSearchRow, LotSearchRow>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public LotSearchSnapshot(ParkingLotRepository parkingLotRepository) {
+        this.parkingLotRepository = parkingLotRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /** Called on the updating thread; must not block. */
+    public void addChangeListener(BiConsumer<LotSearchRow, LotSearchRow> listener) {
+        changeListeners.add(listener);
+    }
+
+    /* ================= READS ================= */
+
+    /** Every searchable lot, in id order. */
+    public List<LotSearchRow> rows() {
+        return snapshot().rows;
+    }
+
+    /** Rows of the given lots, in the order given; unknown ids are skipped. */
+    public List<LotSearchRow> rows(Collection<Long> lotIds) {
+        Map<Long, LotSearchRow> byId = snapshot().byId;
+        List<LotSearchRow> rows = new ArrayList<>(lotIds.size());
+        for (Long lotId : lotIds) {
+            LotSearchRow row = byId.get(lotId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        reloadLock.writeLock().lock();
+        try {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : reload();
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    /* ================= UPDATES ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingWindowChanged(BookingWindowChangedEvent event) {
+        // bookings flip slot occupancy, so the lot's available count moved; already after commit here
+        if (event.getLotId() != null) {
+            patch(event.getLotId());
+        }
+    }
+
+    /** Re-reads one lot's row (after commit inside a transaction). */
+    public void refresh(Long lotId) {
+        if (lotId != null) {
+            afterCommit(() -> patch(lotId));
+        }
+    }
+
+    private void patch(Long lotId) {
+        reloadLock.readLock().lock();
+        try {
+            if (current.get() == null) {
+                // nothing published yet; the first read loads everything
+                return;
+            }
+            synchronized (stripes[Math.floorMod(lotId.hashCode(), STRIPES)]) {
+                List<LotSearchRow> rows = parkingLotRepository.findSearchRows(List.of(lotId));
+                LotSearchRow row = rows.isEmpty() ? null : rows.get(0);
+                Snapshot before = current.getAndUpdate(snapshot -> snapshot.with(lotId, row));
+                notifyChanged(before.byId.get(lotId), row);
+            }
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /** Rebuilds the whole snapshot from the database. */
+    public Snapshot reload() {
+        reloadLock.writeLock().lock();
+        try {
+            Snapshot snapshot = new Snapshot(parkingLotRepository.findSearchRows());
+            Snapshot before = current.getAndSet(snapshot);
+            if (before != null) {
+                before.byId.forEach((lotId, row) -> notifyChanged(row, snapshot.byId.get(lotId)));
+                snapshot.byId.forEach((lotId, row) -> {
+                    if (!before.byId.containsKey(lotId)) {
+                        notifyChanged(null, row);
+                    }
+                });
+            }
+            log.debug("Search snapshot loaded with {} lots", snapshot.rows.size());
+            return snapshot;
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    /** Full reload once the surrounding transaction commits (e.g. provider approved). */
+    public void reloadAfterCommit() {
+        afterCommit(() -> {
+            if (current.get() != null) {
+                reload();
+            }
+        });
+    }
+
+    private void notifyChanged(LotSearchRow before, LotSearchRow after) {
+        if (before == after || (before != null && after != null && unchanged(before, after))) {
+            return;
+        }
+        for (BiConsumer<LotSearchRow, LotSearchRow> listener : changeListeners) {
+            try {
+                listener.accept(before, after);
+            } catch (RuntimeException e) {
+                System.err.println("ERROR: Search snapshot listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // every field of the row; listeners index text, location and availability
+    private static boolean unchanged(LotSearchRow a, LotSearchRow b) {
+        return a.getTotalSlots() == b.getTotalSlots() && a.getOccupiedSlots() == b.getOccupiedSlots()
+                && a.isEvSupported() == b.isEvSupported()
+                && Objects.equals(a.getBasePrice(), b.getBasePrice()) && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getOwnerName(), b.getOwnerName())
+                && Objects.equals(a.getAddress(), b.getAddress()) && Objects.equals(a.getCity(), b.getCity())
+                && Objects.equals(a.getLatitude(), b.getLatitude())
+                && Objects.equals(a.getLongitude(), b.getLongitude());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /* ================= SNAPSHOT ================= */
+
+    public static final class Snapshot {
+
+        private final Map<Long, LotSearchRow> byId;
+        private final List<LotSearchRow> rows;
+
+        Snapshot(List<LotSearchRow> rows) {
+            Map<Long, LotSearchRow> byId = new LinkedHashMap<>();
+            rows.stream()
+                    .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                    .forEach(row -> byId.put(row.getId(), row));
+            this.byId = Collections.unmodifiableMap(byId);
+            this.rows = List.copyOf(byId.values());
+        }
+
+        private Snapshot(Map<Long, LotSearchRow> byId) {
+            this.byId = Collections.unmodifiableMap(byId);
+            this.rows = List.copyOf(byId.values());
+        }
+
+        /** Copy with the lot's row replaced, added (row != null) or dropped (row == null). */
+        Snapshot with(Long lotId, LotSearchRow row) {
+            if (row == null && !byId.containsKey(lotId)) {
+                return this;
+            }
+            Map<Long, LotSearchRow> copy = new LinkedHashMap<>(byId);
+            if (row == null) {
+                copy.remove(lotId);
+            } else if (copy.containsKey(lotId) || copy.isEmpty() || lotId > rows.get(rows.size() - 1).getId()) {
+                copy.put(lotId, row);
+            } else {
+                // keep id order for a lot that reappears in the middle
+                List<LotSearchRow> all = new ArrayList<>(byId.values());
+                all.add(row);
+                return new Snapshot(all);
+            }
+            return new Snapshot(copy);
+        }
+
+        public List<LotSearchRow> getRows() { return rows; }
+    }
+}
@@ -0,0 +1,191 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.LotSearchRow;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over lot name, address and city for the text
+ * search / autocomplete box.
+ *
+ * Tokens (lower-cased, accents stripped) map to the lots containing them in
+ * a sorted map, so a prefix is a range scan: "ko" matches "koramangala" and
+ * "kormangala road". Every query term must match some field of the lot
+ * (the last one is usually still being typed, so all terms match as
+ * prefixes); whole-word hits and name hits rank first.
+ *
+ * Built from {@link LotSearchSnapshot} on first use and then patched one lot
+ * at a time from its change listener, so lots added, renamed or removed
+ * (ProviderParkingController add/update/delete, approvals) show up without
+ * a rebuild and queries never touch the database.
+ */
+@Component
+public class LotTextIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    public static final int MAX_TERMS = 8;
+
+    // field bits kept per (token, lot)
+    private static final int NAME = 1;
+    private static final int CITY = 2;
+    private static final int ADDRESS = 4;
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final LotSearchSnapshot lotSearchSnapshot;
+
+    // token -> (lotId -> field bits)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // lotId -> its tokens, to undo them when the lot changes
+    private final Map<Long, Map<String, Integer>> lotTokens = new HashMap<>();
+    private volatile boolean loaded;
+
+    public LotTextIndex(LotSearchSnapshot lotSearchSnapshot) {
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        lotSearchSnapshot.addChangeListener(this::onLotChanged);
+    }
+
+    /* ================= SEARCH ================= */
+
+    /** Ids of lots matching every term of the query, best first. */
+    public List<Long> search(String query, int limit) {
+        ensureLoaded();
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (terms.size() > MAX_TERMS) {
+            terms = terms.subList(0, MAX_TERMS);
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+                int exact = entry.getKey().equals(term) ? 2 : 1;
+                entry.getValue().forEach((lotId, fields) -> termScores.merge(lotId, weight(fields) * exact, Math::max));
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((lotId, score) -> score + termScores.get(lotId));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> lotIds = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            lotIds.add(ranked.get(i).getKey());
+        }
+        return lotIds;
+    }
+
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static int weight(int fields) {
+        if ((fields & NAME) != 0) {
+            return 3;
+        }
+        return (fields & CITY) != 0 ? 2 : 1;
+    }
+
+    /* ================= UPDATES ================= */
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<LotSearchRow> rows = lotSearchSnapshot.rows();
+            for (LotSearchRow row : rows) {
+                index(row);
+            }
+            loaded = true;
+            System.out.println("DEBUG: Text index built with " + postings.size() + " tokens over " + rows.size() + " lots");
+        }
+    }
+
+    // called by the snapshot (already after commit) for every lot whose row changed
+    private synchronized void onLotChanged(LotSearchRow before, LotSearchRow after) {
+        if (!loaded) {
+            // the first search builds from the then-current snapshot
+            return;
+        }
+        Long lotId = after != null ? after.getId() : before.getId();
+        unindex(lotId);
+        if (after != null) {
+            index(after);
+        }
+    }
+
+    private void index(LotSearchRow row) {
+        Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, row.getName(), NAME);
+        addTokens(tokens, row.getCity(), CITY);
+        addTokens(tokens, row.getAddress(), ADDRESS);
+        lotTokens.put(row.getId(), tokens);
+        tokens.forEach((token, fields) ->
+                postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(row.getId(), fields));
+    }
+
+    private void unindex(Long lotId) {
+        Map<String, Integer> tokens = lotTokens.remove(lotId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens.keySet()) {
+            postings.computeIfPresent(token, (t, lots) -> {
+                lots.remove(lotId);
+                return lots.isEmpty() ? null : lots;
+            });
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> tokens, String text, int field) {
+        for (String token : tokenize(text)) {
+            tokens.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptySet();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SPLIT.split(folded.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
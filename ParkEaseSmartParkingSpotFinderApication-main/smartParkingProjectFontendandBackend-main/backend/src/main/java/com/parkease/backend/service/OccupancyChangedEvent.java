@@ -0,0 +1,20 @@
+package com.parkease.backend.service;
+
+/**
+ * Published when bookings occupy or free slots of {@code lotId}:
+ * {@code delta} is +n for slots taken, -n for slots released. Delivered to
+ * {@link OccupancyRegistry} once the change is committed.
+ */
+public class OccupancyChangedEvent {
+
+    private final Long lotId;
+    private final int delta;
+
+    public OccupancyChangedEvent(Long lotId, int delta) {
+        this.lotId = lotId;
+        this.delta = delta;
+    }
+
+    public Long getLotId() { return lotId; }
+    public int getDelta() { return delta; }
+}
@@ -0,0 +1,248 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.ForecastHour;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expected occupancy per lot for every hour of the week (Monday 00:00 to
+ * Sunday 23:00), learned from completed bookings.
+ *
+ * Each hour a lot has been open is one observation: the average number of
+ * slots its bookings held during that hour (0 when none). Observations of
+ * the same weekday and hour are blended week over week with an EWMA
+ * ({@link #ALPHA}), bias-corrected so a lot with few weeks of history is
+ * not pulled towards zero.
+ *
+ * The profile is loaded once from the last {@link #HISTORY_WEEKS} weeks
+ * with one projection query, then kept current without queries: check-outs
+ * ({@link BookingStatusChangedEvent} COMPLETED) add to the hours they
+ * covered, and an hour is folded into the profile {@link #FOLD_LAG_HOURS}
+ * after it ends. A check-out for an hour already folded is added with the
+ * weight the fold would have given it, so late check-outs are not lost.
+ *
+ * Forecasts for the next {@link #HORIZON_HOURS} hours are read from memory.
+ */
+@Component
+public class OccupancyForecaster {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyForecaster.class);
+
+    public static final int HORIZON_HOURS = 24;
+    static final int HOURS_PER_WEEK = 168;
+    // weight of the newest week; each older week counts (1 - ALPHA) times less
+    static final double ALPHA = 0.3;
+    static final int HISTORY_WEEKS = 8;
+    static final int FOLD_LAG_HOURS = 6;
+
+    private final BookingRepository bookingRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final OccupancyRegistry occupancyRegistry;
+
+    // lotId -> profile, guarded by this
+    private final Map<Long, Profile> profiles = new HashMap<>();
+    private boolean loaded;
+
+    public OccupancyForecaster(
+            BookingRepository bookingRepository,
+            ParkingLotRepository parkingLotRepository,
+            OccupancyRegistry occupancyRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.occupancyRegistry = occupancyRegistry;
+    }
+
+    /* ================= FORECAST ================= */
+
+    /** The lot's expected occupancy for the current hour and the ones after it. */
+    public List<ForecastHour> forecast(Long lotId) {
+        return forecast(List.of(lotId));
+    }
+
+    /** Expected occupancy summed over the lots. */
+    public List<ForecastHour> forecast(Collection<Long> lotIds) {
+        long slots = 0;
+        for (Long lotId : lotIds) {
+            slots += occupancyRegistry.slots(lotId);
+        }
+        long now = hourOf(LocalDateTime.now());
+        double[] occupied = new double[HORIZON_HOURS];
+        synchronized (this) {
+            ensureLoaded();
+            for (Long lotId : lotIds) {
+                Profile profile = profiles.get(lotId);
+                if (profile == null) {
+                    continue;
+                }
+                for (int i = 0; i < HORIZON_HOURS; i++) {
+                    occupied[i] += profile.estimate(slotOf(now + i));
+                }
+            }
+        }
+
+        List<ForecastHour> hours = new ArrayList<>(HORIZON_HOURS);
+        for (int i = 0; i < HORIZON_HOURS; i++) {
+            long expected = Math.min(slots, Math.round(occupied[i]));
+            hours.add(new ForecastHour(
+                    timeOf(now + i),
+                    Math.round(occupied[i] * 10) / 10.0,
+                    slots - expected,
+                    slots > 0 ? (int) (expected * 100 / slots) : 0));
+        }
+        return hours;
+    }
+
+    /** Expected occupancy over every lot. */
+    public List<ForecastHour> forecastAll() {
+        return forecast(occupancyRegistry.lotIds());
+    }
+
+    /* ================= LEARNING ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        // before the first load the booking is picked up by the load itself
+        if (!loaded || event.getStatus() != BookingStatus.COMPLETED || event.getLotId() == null
+                || event.getStartTime() == null || event.getEndTime() == null) {
+            return;
+        }
+        Profile profile = profiles.computeIfAbsent(event.getLotId(),
+                id -> new Profile(Math.max(hourOf(event.getStartTime()), historyStart())));
+        profile.add(event.getStartTime(), event.getEndTime());
+    }
+
+    @Scheduled(cron = "0 5 * * * *")
+    public void roll() {
+        Set<Long> lotIds = occupancyRegistry.lotIds();
+        synchronized (this) {
+            ensureLoaded();
+            // deleted lots
+            profiles.keySet().retainAll(lotIds);
+            long through = foldThrough();
+            profiles.values().forEach(profile -> profile.fold(through));
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        long since = historyStart();
+        Map<Long, Profile> loading = new HashMap<>();
+        int bookings = 0;
+        try {
+            // row = [lotId, createdAt]; a lot's hours count from its creation
+            for (Object[] row : parkingLotRepository.findCreatedTimes()) {
+                long created = row[1] != null ? hourOf((LocalDateTime) row[1]) : since;
+                loading.put((Long) row[0], new Profile(Math.max(since, created)));
+            }
+            // row = [lotId, startTime, endTime]
+            for (Object[] row : bookingRepository.findCompletedWindowsSince(timeOf(since))) {
+                Profile profile = loading.get((Long) row[0]);
+                if (profile != null && row[1] != null && row[2] != null) {
+                    profile.add((LocalDateTime) row[1], (LocalDateTime) row[2]);
+                    bookings++;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Occupancy forecast load failed: " + e.getMessage());
+            return;
+        }
+        long through = foldThrough();
+        loading.values().forEach(profile -> profile.fold(through));
+        profiles.clear();
+        profiles.putAll(loading);
+        loaded = true;
+        log.debug("Occupancy forecast learned from {} bookings over {} lots", bookings, loading.size());
+    }
+
+    private static long historyStart() {
+        return hourOf(LocalDateTime.now()) - (long) HISTORY_WEEKS * HOURS_PER_WEEK;
+    }
+
+    // last hour old enough to fold
+    private static long foldThrough() {
+        return hourOf(LocalDateTime.now()) - 1 - FOLD_LAG_HOURS;
+    }
+
+    /* ================= TIME ================= */
+
+    // wall-clock hours, so every local day has 24 of them
+    static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    static LocalDateTime timeOf(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC);
+    }
+
+    // hour of the week, Monday 00:00 = 0 (1970-01-01 was a Thursday)
+    static int slotOf(long hour) {
+        long day = Math.floorDiv(hour, 24);
+        return (int) (Math.floorMod(day + 3, 7) * 24 + Math.floorMod(hour, 24));
+    }
+
+    /* ================= PROFILE ================= */
+
+    private static final class Profile {
+        // EWMA of slots held, per hour of the week, before bias correction
+        final double[] mean = new double[HOURS_PER_WEEK];
+        // observations folded into each hour of the week
+        final int[] folds = new int[HOURS_PER_WEEK];
+        // hours from here on count; earlier ones the lot did not exist or are out of history
+        final long startHour;
+        long foldedThrough;
+        // hour -> slots held so far, for hours not folded yet
+        final Map<Long, Double> open = new HashMap<>();
+
+        Profile(long startHour) {
+            this.startHour = startHour;
+            this.foldedThrough = startHour - 1;
+        }
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            long from = start.toEpochSecond(ZoneOffset.UTC);
+            long to = end.toEpochSecond(ZoneOffset.UTC);
+            for (long hour = Math.max(Math.floorDiv(from, 3600), startHour); hour * 3600 < to; hour++) {
+                double held = (Math.min(to, (hour + 1) * 3600) - Math.max(from, hour * 3600)) / 3600.0;
+                if (hour > foldedThrough) {
+                    open.merge(hour, held, Double::sum);
+                } else {
+                    // as if it had been folded in, then decayed by the weeks folded since
+                    long weeksSince = (foldedThrough - hour) / HOURS_PER_WEEK;
+                    mean[slotOf(hour)] += ALPHA * Math.pow(1 - ALPHA, weeksSince) * held;
+                }
+            }
+        }
+
+        void fold(long through) {
+            for (long hour = foldedThrough + 1; hour <= through; hour++) {
+                Double held = open.remove(hour);
+                int slot = slotOf(hour);
+                mean[slot] = (1 - ALPHA) * mean[slot] + ALPHA * (held != null ? held : 0);
+                folds[slot]++;
+            }
+            foldedThrough = Math.max(foldedThrough, through);
+        }
+
+        double estimate(int slot) {
+            int n = folds[slot];
+            return n == 0 ? 0 : mean[slot] / (1 - Math.pow(1 - ALPHA, n));
+        }
+    }
+}
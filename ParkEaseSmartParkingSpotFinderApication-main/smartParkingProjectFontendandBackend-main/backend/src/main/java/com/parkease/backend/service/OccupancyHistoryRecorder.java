@@ -0,0 +1,360 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.dto.OccupancyPoint;
+import com.parkease.backend.entity.OccupancySegment;
+import com.parkease.backend.repository.OccupancySegmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-minute occupancy history of every lot, for charts.
+ *
+ * Once a minute the occupied count of each lot is read from
+ * {@link OccupancyRegistry} (no query) into a per-lot ring of the last
+ * {@link #MINUTES_PER_DAY} minutes, one short per minute. Each day is
+ * spilled to an {@link OccupancySegment} row when it ends, and today's
+ * partial day every {@link #FLUSH_MINUTES} so a restart loses little; on
+ * startup the ring is seeded back from those rows.
+ *
+ * Range reads come from the ring when they fit in the last 24 hours and
+ * otherwise from one segment query with the ring laid over it. Minutes are
+ * wall-clock minutes, so every local day has exactly 1440 of them.
+ */
+@Component
+public class OccupancyHistoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyHistoryRecorder.class);
+
+    public static final int MINUTES_PER_DAY = 1440;
+    public static final int MAX_RANGE_DAYS = 31;
+    static final int FLUSH_MINUTES = 15;
+    static final int RETENTION_DAYS = 90;
+    // stored for a minute without a sample
+    static final short EMPTY = -1;
+
+    private final OccupancyRegistry occupancyRegistry;
+    private final OccupancySegmentRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // lotId -> ring of the last day's samples
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    public OccupancyHistoryRecorder(
+            OccupancyRegistry occupancyRegistry,
+            OccupancySegmentRepository segmentRepository,
+            PlatformTransactionManager transactionManager) {
+        this.occupancyRegistry = occupancyRegistry;
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /* ================= SAMPLING ================= */
+
+    @Scheduled(cron = "0 * * * * *")
+    public void sample() {
+        record(minuteOf(LocalDateTime.now()));
+    }
+
+    synchronized void record(long minute) {
+        if (!seeded) {
+            seed(minute);
+        }
+        Set<Long> lotIds = occupancyRegistry.lotIds();
+        List<Pending> spills = new ArrayList<>();
+        boolean dayEnded = false;
+
+        for (Long lotId : lotIds) {
+            Series s = series.computeIfAbsent(lotId, id -> new Series());
+            short occupied = (short) Math.min(Short.MAX_VALUE, occupancyRegistry.occupied(lotId));
+            synchronized (s) {
+                if (minute <= s.last) {
+                    continue;
+                }
+                if (s.last >= 0 && dayOf(s.last) != dayOf(minute)) {
+                    spills.add(new Pending(lotId, dayOf(s.last), s.day(dayOf(s.last))));
+                    dayEnded = true;
+                }
+                s.put(minute, occupied);
+                if (minute % FLUSH_MINUTES == 0) {
+                    spills.add(new Pending(lotId, dayOf(minute), s.day(dayOf(minute))));
+                }
+            }
+        }
+
+        // deleted lots: keep what was recorded today, then forget them
+        for (Map.Entry<Long, Series> entry : series.entrySet()) {
+            if (!lotIds.contains(entry.getKey()) && series.remove(entry.getKey(), entry.getValue())) {
+                Series s = entry.getValue();
+                synchronized (s) {
+                    if (s.last >= 0) {
+                        spills.add(new Pending(entry.getKey(), dayOf(s.last), s.day(dayOf(s.last))));
+                    }
+                }
+            }
+        }
+
+        persist(spills);
+        if (dayEnded) {
+            purgeExpired(dayOf(minute));
+        }
+    }
+
+    @PreDestroy
+    synchronized void flush() {
+        List<Pending> spills = new ArrayList<>();
+        series.forEach((lotId, s) -> {
+            synchronized (s) {
+                if (s.last >= 0) {
+                    spills.add(new Pending(lotId, dayOf(s.last), s.day(dayOf(s.last))));
+                }
+            }
+        });
+        persist(spills);
+    }
+
+    /* ================= RANGE ================= */
+
+    /**
+     * Average and peak occupied slots of the lot in buckets of {@code step}
+     * minutes from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    public List<OccupancyPoint> range(Long lotId, LocalDateTime from, LocalDateTime to, int step) {
+        long start = minuteOf(from);
+        long end = minuteOf(to);
+        long firstDay = dayOf(start);
+        long lastDay = dayOf(end - 1);
+
+        // day -> samples, ring laid over the stored segments
+        Map<Long, short[]> days = new HashMap<>();
+        Series s = series.get(lotId);
+        boolean inRing = false;
+        if (s != null) {
+            synchronized (s) {
+                inRing = seeded && start > s.last - MINUTES_PER_DAY;
+            }
+        }
+        if (!inRing) {
+            for (OccupancySegment segment : segmentRepository.findByLotIdAndSampleDateBetweenOrderBySampleDate(
+                    lotId, LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay))) {
+                days.put(segment.getSampleDate().toEpochDay(), unpack(segment.getSamples()));
+            }
+        }
+        if (s != null) {
+            synchronized (s) {
+                for (long day = firstDay; day <= lastDay; day++) {
+                    s.overlay(day, days.computeIfAbsent(day, d -> empty()));
+                }
+            }
+        }
+
+        List<OccupancyPoint> points = new ArrayList<>((int) ((end - start + step - 1) / step));
+        for (long bucket = start; bucket < end; bucket += step) {
+            long sum = 0;
+            int count = 0;
+            int peak = 0;
+            for (long minute = bucket; minute < Math.min(bucket + step, end); minute++) {
+                short[] samples = days.get(dayOf(minute));
+                short value = samples != null ? samples[(int) (minute - dayOf(minute) * MINUTES_PER_DAY)] : EMPTY;
+                if (value != EMPTY) {
+                    sum += value;
+                    count++;
+                    peak = Math.max(peak, value);
+                }
+            }
+            points.add(count > 0
+                    ? new OccupancyPoint(timeOf(bucket), (int) Math.round((double) sum / count), peak)
+                    : new OccupancyPoint(timeOf(bucket), null, null));
+        }
+        return points;
+    }
+
+    /* ================= STORAGE ================= */
+
+    // ring <- today's and yesterday's segments, so a restart keeps the last 24 hours
+    private void seed(long minute) {
+        seeded = true;
+        long today = dayOf(minute);
+        List<OccupancySegment> segments;
+        try {
+            segments = segmentRepository.findBySampleDateBetween(
+                    LocalDate.ofEpochDay(today - 1), LocalDate.ofEpochDay(today));
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Occupancy history seed failed: " + e.getMessage());
+            return;
+        }
+        for (OccupancySegment segment : segments) {
+            Series s = series.computeIfAbsent(segment.getLotId(), id -> new Series());
+            synchronized (s) {
+                s.load(segment.getSampleDate().toEpochDay(), unpack(segment.getSamples()), minute);
+            }
+        }
+        if (!segments.isEmpty()) {
+            log.debug("Occupancy history seeded from {} segments", segments.size());
+        }
+    }
+
+    private void persist(List<Pending> spills) {
+        if (spills.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> days = new HashSet<>();
+        Set<Long> lotIds = new HashSet<>();
+        spills.forEach(p -> {
+            days.add(LocalDate.ofEpochDay(p.day));
+            lotIds.add(p.lotId);
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, OccupancySegment> existing = new HashMap<>();
+                for (OccupancySegment segment : segmentRepository.findBySampleDateInAndLotIdIn(days, lotIds)) {
+                    existing.put(segment.getLotId() + "@" + segment.getSampleDate().toEpochDay(), segment);
+                }
+                List<OccupancySegment> rows = new ArrayList<>(spills.size());
+                for (Pending p : spills) {
+                    OccupancySegment segment = existing.get(p.lotId + "@" + p.day);
+                    if (segment == null) {
+                        segment = new OccupancySegment(p.lotId, LocalDate.ofEpochDay(p.day), pack(p.samples));
+                        existing.put(p.lotId + "@" + p.day, segment);
+                    } else {
+                        segment.setSamples(pack(p.samples));
+                    }
+                    rows.add(segment);
+                }
+                segmentRepository.saveAll(rows);
+            });
+        } catch (RuntimeException e) {
+            // the ring still holds the last 24 hours; the next flush retries
+            System.err.println("ERROR: Occupancy history spill failed: " + e.getMessage());
+        }
+    }
+
+    private void purgeExpired(long today) {
+        try {
+            Integer removed = transactionTemplate.execute(status ->
+                    segmentRepository.deleteOlderThan(LocalDate.ofEpochDay(today - RETENTION_DAYS)));
+            if (removed != null && removed > 0) {
+                log.debug("Purged {} occupancy history segments", removed);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Occupancy history purge failed: " + e.getMessage());
+        }
+    }
+
+    static byte[] pack(short[] samples) {
+        ByteBuffer buffer = ByteBuffer.allocate(samples.length * 2);
+        buffer.asShortBuffer().put(samples);
+        return buffer.array();
+    }
+
+    static short[] unpack(byte[] bytes) {
+        short[] samples = empty();
+        ByteBuffer.wrap(bytes).asShortBuffer().get(samples, 0, Math.min(samples.length, bytes.length / 2));
+        return samples;
+    }
+
+    /* ================= TIME ================= */
+
+    static long minuteOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime timeOf(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    static long dayOf(long minute) {
+        return Math.floorDiv(minute, MINUTES_PER_DAY);
+    }
+
+    private static short[] empty() {
+        short[] samples = new short[MINUTES_PER_DAY];
+        Arrays.fill(samples, EMPTY);
+        return samples;
+    }
+
+    /* ================= SERIES ================= */
+
+    // guarded by its own monitor
+    private static final class Series {
+        // minute m lives at m % MINUTES_PER_DAY while m is within the last day
+        final short[] ring = empty();
+        // newest minute written, -1 before the first
+        long last = -1;
+
+        void put(long minute, short value) {
+            if (last >= 0) {
+                // minutes skipped since the last sample (app down, slow run) have none
+                for (long m = Math.max(last + 1, minute - MINUTES_PER_DAY + 1); m < minute; m++) {
+                    ring[slot(m)] = EMPTY;
+                }
+            }
+            ring[slot(minute)] = value;
+            last = minute;
+        }
+
+        // stored day samples -> ring, for the minutes of the day before {@code now}
+        void load(long day, short[] samples, long now) {
+            for (int i = 0; i < MINUTES_PER_DAY; i++) {
+                long minute = day * MINUTES_PER_DAY + i;
+                if (minute < now && minute >= now - MINUTES_PER_DAY) {
+                    ring[slot(minute)] = samples[i];
+                }
+            }
+            last = Math.max(last, now - 1);
+        }
+
+        short[] day(long day) {
+            short[] samples = empty();
+            overlay(day, samples);
+            return samples;
+        }
+
+        // the ring's minutes of {@code day} -> samples
+        void overlay(long day, short[] samples) {
+            if (last < 0) {
+                return;
+            }
+            long from = Math.max(day * MINUTES_PER_DAY, last - MINUTES_PER_DAY + 1);
+            long to = Math.min(day * MINUTES_PER_DAY + MINUTES_PER_DAY - 1, last);
+            for (long minute = from; minute <= to; minute++) {
+                samples[(int) (minute - day * MINUTES_PER_DAY)] = ring[slot(minute)];
+            }
+        }
+
+        private static int slot(long minute) {
+            return (int) Math.floorMod(minute, (long) MINUTES_PER_DAY);
+        }
+    }
+
+    // one lot-day of samples waiting to be written
+    private static final class Pending {
+        final Long lotId;
+        final long day;
+        final short[] samples;
+
+        Pending(Long lotId, long day, short[] samples) {
+            this.lotId = lotId;
+            this.day = day;
+            this.samples = samples;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Slot and occupied-slot counters per lot (plus per provider and overall),
+ * so dashboards and listings read occupancy from memory instead of running
+ * a count query per lot.
+ *
+ * Counters are loaded with one grouped query on first use and then moved by
+ * deltas after commit:
+ * - bookings taking or freeing slots via {@link OccupancyChangedEvent},
+ * - slots added or deleted and lots deleted via the methods below.
+ *
+ * Every {@link #RECONCILE_MS} the same grouped query is compared against the
+ * counters and any drift (a missed path, a manual DB edit) is corrected.
+ * Lots that changed while the query ran are left for the next pass.
+ */
+@Component
+public class OccupancyRegistry {
+
+    public static final long RECONCILE_MS = 60_000;
+
+    private final ParkingLotRepository parkingLotRepository;
+
+    private final Map<Long, Counter> lots = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> occupiedByProvider = new ConcurrentHashMap<>();
+    private final LongAdder totalSlots = new LongAdder();
+    private final LongAdder totalOccupied = new LongAdder();
+    // bumped on every change; reconcile skips lots touched after it started
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean loaded;
+
+    public OccupancyRegistry(ParkingLotRepository parkingLotRepository) {
+        this.parkingLotRepository = parkingLotRepository;
+    }
+
+    /* ================= READS ================= */
+
+    public long occupied(Long lotId) {
+        ensureLoaded();
+        Counter counter = lotId != null ? lots.get(lotId) : null;
+        return counter != null ? Math.max(0, counter.occupied.sum()) : 0;
+    }
+
+    /** Slot rows of the lot, whatever their status. */
+    public long slots(Long lotId) {
+        ensureLoaded();
+        Counter counter = lotId != null ? lots.get(lotId) : null;
+        return counter != null ? Math.max(0, counter.slots.sum()) : 0;
+    }
+
+    public long available(Long lotId) {
+        return Math.max(0, slots(lotId) - occupied(lotId));
+    }
+
+    public long occupiedByProvider(Long providerId) {
+        ensureLoaded();
+        LongAdder occupied = providerId != null ? occupiedByProvider.get(providerId) : null;
+        return occupied != null ? Math.max(0, occupied.sum()) : 0;
+    }
+
+    /** Lots currently counted. */
+    public Set<Long> lotIds() {
+        ensureLoaded();
+        return Set.copyOf(lots.keySet());
+    }
+
+    public long totalOccupied() {
+        ensureLoaded();
+        return Math.max(0, totalOccupied.sum());
+    }
+
+    public long totalAvailable() {
+        ensureLoaded();
+        return Math.max(0, totalSlots.sum() - totalOccupied.sum());
+    }
+
+    /* ================= UPDATES ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        if (event.getLotId() != null) {
+            adjust(event.getLotId(), null, 0, event.getDelta());
+        }
+    }
+
+    /** New (free) slots in the lot, applied after commit. */
+    public void slotsAdded(ParkingLot lot, int count) {
+        if (lot != null && lot.getId() != null && count > 0) {
+            Long providerId = lot.getProvider() != null ? lot.getProvider().getId() : null;
+            afterCommit(() -> adjust(lot.getId(), providerId, count, 0));
+        }
+    }
+
+    public void slotRemoved(Long lotId, boolean occupied) {
+        if (lotId != null) {
+            afterCommit(() -> adjust(lotId, null, -1, occupied ? -1 : 0));
+        }
+    }
+
+    /** The lot and its slots are gone. */
+    public void lotRemoved(Long lotId) {
+        if (lotId != null) {
+            afterCommit(() -> {
+                Counter counter = lots.remove(lotId);
+                if (counter != null) {
+                    sequence.incrementAndGet();
+                    move(counter, -counter.slots.sum(), -counter.occupied.sum());
+                }
+            });
+        }
+    }
+
+    private void adjust(Long lotId, Long providerId, long slotDelta, long occupiedDelta) {
+        if (!loaded) {
+            // the first read loads committed counts, this change included
+            return;
+        }
+        Counter counter = lots.computeIfAbsent(lotId, id -> new Counter());
+        if (providerId != null && counter.providerId == null) {
+            counter.providerId = providerId;
+        }
+        counter.touched = sequence.incrementAndGet();
+        counter.slots.add(slotDelta);
+        counter.occupied.add(occupiedDelta);
+        move(counter, slotDelta, occupiedDelta);
+    }
+
+    // keeps the overall and per-provider sums in line with a lot's change
+    private void move(Counter counter, long slotDelta, long occupiedDelta) {
+        totalSlots.add(slotDelta);
+        totalOccupied.add(occupiedDelta);
+        if (counter.providerId != null && occupiedDelta != 0) {
+            occupiedByProvider.computeIfAbsent(counter.providerId, id -> new LongAdder()).add(occupiedDelta);
+        }
+    }
+
+    /* ================= RECONCILE ================= */
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                reconcile();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = RECONCILE_MS, initialDelay = RECONCILE_MS)
+    public synchronized void reconcile() {
+        long mark = sequence.get();
+        // row = [lotId, providerId, slotCount, occupiedCount]
+        List<Object[]> rows;
+        try {
+            rows = parkingLotRepository.findOccupancyCounts();
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Occupancy reconcile failed: " + e.getMessage());
+            return;
+        }
+
+        boolean initial = !loaded;
+        int drifted = 0;
+        Set<Long> seen = new HashSet<>();
+        for (Object[] row : rows) {
+            Long lotId = (Long) row[0];
+            seen.add(lotId);
+            Counter counter = lots.computeIfAbsent(lotId, id -> new Counter());
+            if (counter.touched > mark) {
+                continue;
+            }
+            Long providerId = (Long) row[1];
+            if (providerId != null && !providerId.equals(counter.providerId)) {
+                // counted under the old provider: move it over
+                move(counter, 0, -counter.occupied.sum());
+                counter.providerId = providerId;
+                move(counter, 0, counter.occupied.sum());
+            }
+            long slotDiff = count(row[2]) - counter.slots.sum();
+            long occupiedDiff = count(row[3]) - counter.occupied.sum();
+            if (slotDiff != 0 || occupiedDiff != 0) {
+                counter.slots.add(slotDiff);
+                counter.occupied.add(occupiedDiff);
+                move(counter, slotDiff, occupiedDiff);
+                drifted++;
+            }
+        }
+        for (Map.Entry<Long, Counter> entry : lots.entrySet()) {
+            Counter counter = entry.getValue();
+            if (!seen.contains(entry.getKey()) && counter.touched <= mark && lots.remove(entry.getKey(), counter)) {
+                move(counter, -counter.slots.sum(), -counter.occupied.sum());
+                drifted++;
+            }
+        }
+        loaded = true;
+
+        if (initial) {
+            System.out.println("DEBUG: Occupancy registry loaded for " + rows.size() + " lots");
+        } else if (drifted > 0) {
+            System.out.println("DEBUG: Occupancy registry corrected drift on " + drifted + " lots");
+        }
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /* ================= COUNTER ================= */
+
+    private static final class Counter {
+        final LongAdder slots = new LongAdder();
+        final LongAdder occupied = new LongAdder();
+        volatile Long providerId;
+        volatile long touched;
+    }
+}
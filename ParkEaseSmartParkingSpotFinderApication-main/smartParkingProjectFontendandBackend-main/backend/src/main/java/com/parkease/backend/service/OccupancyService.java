@@ -3,10 +3,11 @@ package com.parkease.backend.service;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,16 +15,16 @@ import java.util.Map;
 public class OccupancyService {
 
     private final ParkingLotRepository parkingLotRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
+    private final OccupancyRegistry occupancyRegistry;
     private final UserRepository userRepository;
 
     public OccupancyService(
             ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository,
+            OccupancyRegistry occupancyRegistry,
             UserRepository userRepository
     ) {
         this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
+        this.occupancyRegistry = occupancyRegistry;
         this.userRepository = userRepository;
     }
 
@@ -39,20 +40,31 @@ public class OccupancyService {
             throw new RuntimeException("No parking lot found for provider");
         }
 
-        ParkingLot lot = lots.get(0); // use primary lot
+        // in-memory counters, reconciled against the slots table in the background
+        long occupied = 0;
+        long available = 0;
+        List<Map<String, Object>> perLot = new ArrayList<>(lots.size());
 
-        long occupied =
-                parkingSlotRepository.countByParkingLotAndOccupiedTrue(lot);
+        for (ParkingLot lot : lots) {
+            long lotOccupied = occupancyRegistry.occupied(lot.getId());
+            long lotAvailable = occupancyRegistry.available(lot.getId());
+            occupied += lotOccupied;
+            available += lotAvailable;
 
-        long available =
-                parkingSlotRepository.countByParkingLotAndOccupiedFalse(lot);
-
-        long total = occupied + available;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("lotId", lot.getId());
+            row.put("name", lot.getName());
+            row.put("occupied", lotOccupied);
+            row.put("available", lotAvailable);
+            row.put("total", lotOccupied + lotAvailable);
+            perLot.add(row);
+        }
 
-        return Map.of(
-                "occupied", occupied,
-                "available", available,
-                "total", total
-        );
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("occupied", occupied);
+        result.put("available", available);
+        result.put("total", occupied + available);
+        result.put("lots", perLot);
+        return result;
     }
 }
@@ -0,0 +1,151 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.OutboxEvent;
+import com.parkease.backend.enumtype.OutboxStatus;
+import com.parkease.backend.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drains the booking outbox in the background.
+ *
+ * Pending events are read in id order in batches and split by provider across
+ * a small worker pool; each partition creates its payment rows, credits its
+ * providers and writes their ledger entries in one transaction together with
+ * marking the events processed, so every event is applied exactly once.
+ * Partitioning by provider keeps two workers from updating the same wallet.
+ * If a partition fails its events are retried one by one; an event that still
+ * fails is retried on later runs and parked as FAILED after
+ * {@link #MAX_ATTEMPTS}.
+ */
+@Service
+public class PaymentOutboxWorker {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int POOL_SIZE = 4;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+        Thread t = new Thread(r, "payment-outbox-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PaymentOutboxWorker(
+            OutboxEventRepository outboxEventRepository,
+            PaymentService paymentService,
+            PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void drain() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findBatch(OutboxStatus.PENDING, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!applyPartitioned(batch)) {
+                // leave the failed partitions for the next run instead of spinning on them
+                return;
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    private boolean applyPartitioned(List<OutboxEvent> batch) {
+        Map<Long, List<OutboxEvent>> partitions = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            partitions.computeIfAbsent(event.getProviderId() % POOL_SIZE, k -> new ArrayList<>()).add(event);
+        }
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (List<OutboxEvent> partition : partitions.values()) {
+            results.add(workers.submit(() -> apply(partition)));
+        }
+
+        boolean allApplied = true;
+        for (Future<Boolean> result : results) {
+            try {
+                allApplied &= result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                allApplied = false;
+            }
+        }
+        return allApplied;
+    }
+
+    private boolean apply(List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // claim before crediting, so a second relay or a retry can never apply an event twice
+                if (outboxEventRepository.markProcessed(ids, LocalDateTime.now()) != ids.size()) {
+                    throw new AlreadyProcessedException();
+                }
+                paymentService.applyPaidBookings(events);
+            });
+            return true;
+        } catch (AlreadyProcessedException e) {
+            if (events.size() == 1) {
+                System.out.println("DEBUG: Outbox event " + ids + " already processed, skipped");
+                return true;
+            }
+            // some were taken elsewhere: apply the rest one by one
+            boolean allApplied = true;
+            for (OutboxEvent event : events) {
+                allApplied &= apply(List.of(event));
+            }
+            return allApplied;
+        } catch (RuntimeException e) {
+            if (events.size() > 1) {
+                // isolate the bad event(s) so the rest of the partition still goes through
+                boolean allApplied = true;
+                for (OutboxEvent event : events) {
+                    allApplied &= apply(List.of(event));
+                }
+                return allApplied;
+            }
+            System.err.println("ERROR: Outbox event " + ids + " failed: " + e.getMessage());
+            String error = String.valueOf(e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.recordFailedAttempt(ids, error.length() > 250 ? error.substring(0, 250) : error);
+                outboxEventRepository.markExhausted(ids, MAX_ATTEMPTS);
+            });
+            return false;
+        }
+    }
+
+    // rolls back a batch containing events that are no longer PENDING
+    static final class AlreadyProcessedException extends RuntimeException {
+        AlreadyProcessedException() {
+            super("Outbox event already processed");
+        }
+    }
+}
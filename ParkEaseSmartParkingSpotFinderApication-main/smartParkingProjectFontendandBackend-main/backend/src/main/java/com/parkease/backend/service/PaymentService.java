@@ -1,66 +1,125 @@
 package com.parkease.backend.service;
 
 import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.OutboxEvent;
 import com.parkease.backend.entity.Payment;
 import com.parkease.backend.enumtype.PaymentStatus;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.OutboxEventRepository;
 import com.parkease.backend.repository.PaymentRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class PaymentService {
 
+    // share of every booking kept by the platform
+    public static final double PLATFORM_FEE_RATE = 0.1;
+
     private final PaymentRepository paymentRepository;
     private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
     private final com.parkease.backend.repository.UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final OutboxEventRepository outboxEventRepository;
 
     public PaymentService(PaymentRepository paymentRepository,
             com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository,
-            com.parkease.backend.repository.UserRepository userRepository) {
+            com.parkease.backend.repository.UserRepository userRepository,
+            BookingRepository bookingRepository,
+            OutboxEventRepository outboxEventRepository) {
         this.paymentRepository = paymentRepository;
         this.walletTransactionRepository = walletTransactionRepository;
         this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.outboxEventRepository = outboxEventRepository;
     }
 
-    public Payment createPayment(
-            Booking booking,
-            double totalAmount,
-            double platformFee,
-            String method) {
-
-        Payment payment = new Payment();
-        payment.setBooking(booking);
-        payment.setTotalAmount(totalAmount);
-        payment.setPlatformFee(platformFee);
-        payment.setProviderEarning(totalAmount - platformFee);
-        payment.setPaymentMethod(method);
-        payment.setStatus(PaymentStatus.PAID);
-
-        Payment savedPayment = paymentRepository.save(payment);
-
-        // Record for Provider (Graph update)
-        com.parkease.backend.entity.User provider = booking.getParkingSlot().getParkingLot().getProvider();
-        
-        // Update Provider Balance
-        double currentProviderBalance = provider.getWalletBalance() != null ? provider.getWalletBalance() : 0.0;
-        provider.setWalletBalance(currentProviderBalance + payment.getProviderEarning());
-        userRepository.save(provider);
-        
-        com.parkease.backend.entity.WalletTransaction providerTx = new com.parkease.backend.entity.WalletTransaction(
-                provider, payment.getProviderEarning(), "CREDIT", "Earnings from Booking #" + booking.getId());
-        walletTransactionRepository.save(providerTx);
-
-        // Record for Driver (Spending)
+    /**
+     * Charges a booking inside the booking's own transaction: the driver is
+     * debited atomically (failing the booking if the balance no longer covers
+     * it) and an outbox event is written for the provider-side work, which
+     * {@link PaymentOutboxWorker} applies asynchronously.
+     */
+    public void chargeBooking(Booking booking, double totalAmount, String method) {
         com.parkease.backend.entity.User driver = booking.getDriver();
-        
-        // Update Driver Balance
-        double currentDriverBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        driver.setWalletBalance(currentDriverBalance - payment.getTotalAmount());
-        userRepository.save(driver);
-        
-        com.parkease.backend.entity.WalletTransaction driverTx = new com.parkease.backend.entity.WalletTransaction(
-                driver, payment.getTotalAmount(), "DEBIT", "Payment for Booking #" + booking.getId());
-        walletTransactionRepository.save(driverTx);
-
-        return savedPayment;
+        debitDriver(driver, totalAmount, "Payment for Booking #" + booking.getId());
+        outboxEventRepository.save(paidEvent(booking, totalAmount, method));
+    }
+
+    /**
+     * Batch variant of {@link #chargeBooking} for fleet bookings: one debit and
+     * one ledger row for the driver, one outbox event per booking.
+     */
+    public void chargeBatch(List<Booking> bookings, String method) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        List<OutboxEvent> events = new ArrayList<>();
+        double driverTotal = 0;
+        for (Booking booking : bookings) {
+            double total = booking.getTotalAmount() != null ? booking.getTotalAmount() : 0.0;
+            events.add(paidEvent(booking, total, method));
+            driverTotal += total;
+        }
+
+        debitDriver(bookings.get(0).getDriver(), driverTotal, "Payment for Fleet Booking #"
+                + bookings.get(0).getId() + " (" + bookings.size() + " vehicles)");
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Applies a batch of BOOKING_PAID events: payment rows and provider ledger
+     * rows go through saveAll and every provider is credited once with its
+     * summed earnings. Runs inside the worker's transaction.
+     */
+    public void applyPaidBookings(List<OutboxEvent> events) {
+        List<Payment> payments = new ArrayList<>();
+        List<com.parkease.backend.entity.WalletTransaction> ledger = new ArrayList<>();
+        Map<Long, Double> providerEarnings = new LinkedHashMap<>();
+
+        for (OutboxEvent event : events) {
+            Payment payment = new Payment();
+            payment.setBooking(bookingRepository.getReferenceById(event.getBookingId()));
+            payment.setTotalAmount(event.getAmount());
+            payment.setPlatformFee(event.getPlatformFee());
+            payment.setProviderEarning(event.getAmount() - event.getPlatformFee());
+            payment.setPaymentMethod(event.getPaymentMethod());
+            payment.setStatus(PaymentStatus.PAID);
+            payment.setPaidAt(event.getCreatedAt());
+            payments.add(payment);
+
+            providerEarnings.merge(event.getProviderId(), payment.getProviderEarning(), Double::sum);
+
+            com.parkease.backend.entity.WalletTransaction providerTx = new com.parkease.backend.entity.WalletTransaction(
+                    userRepository.getReferenceById(event.getProviderId()), payment.getProviderEarning(), "CREDIT",
+                    "Earnings from Booking #" + event.getBookingId());
+            providerTx.setCreatedAt(event.getCreatedAt());
+            ledger.add(providerTx);
+        }
+
+        paymentRepository.saveAll(payments);
+        providerEarnings.forEach(userRepository::creditWallet);
+        walletTransactionRepository.saveAll(ledger);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private void debitDriver(com.parkease.backend.entity.User driver, double amount, String description) {
+        if (userRepository.debitWallet(driver.getId(), amount) == 0) {
+            throw new RuntimeException("Insufficient wallet balance");
+        }
+        walletTransactionRepository.save(
+                new com.parkease.backend.entity.WalletTransaction(driver, amount, "DEBIT", description));
+    }
+
+    private OutboxEvent paidEvent(Booking booking, double totalAmount, String method) {
+        return new OutboxEvent(OutboxEvent.BOOKING_PAID, booking.getId(),
+                booking.getParkingLot().getProvider().getId(),
+                totalAmount, totalAmount * PLATFORM_FEE_RATE, method);
     }
 }
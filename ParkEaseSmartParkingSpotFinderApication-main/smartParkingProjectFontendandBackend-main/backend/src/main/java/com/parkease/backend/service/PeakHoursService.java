@@ -1,59 +1,60 @@
 package com.parkease.backend.service;
 
-import com.parkease.backend.entity.Booking;
+import com.parkease.backend.dto.ForecastHour;
+import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
-import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.util.*;
 
 @Service
 public class PeakHoursService {
 
-    private final BookingRepository bookingRepository;
+    private final ParkingLotRepository parkingLotRepository;
     private final UserRepository userRepository;
+    private final OccupancyForecaster occupancyForecaster;
 
     public PeakHoursService(
-            BookingRepository bookingRepository,
-            UserRepository userRepository
+            ParkingLotRepository parkingLotRepository,
+            UserRepository userRepository,
+            OccupancyForecaster occupancyForecaster
     ) {
-        this.bookingRepository = bookingRepository;
+        this.parkingLotRepository = parkingLotRepository;
         this.userRepository = userRepository;
+        this.occupancyForecaster = occupancyForecaster;
     }
 
+    /** Busiest hours of the next 24 across the provider's lots, predicted from their booking history. */
     public List<Map<String, Object>> getPeakHours(String email) {
 
         User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        List<Booking> bookings =
-                bookingRepository.findTodayBookingsForProvider(provider.getId());
+        List<Long> lotIds = parkingLotRepository.findByProvider(provider)
+                .stream().map(ParkingLot::getId).toList();
 
-        Map<Integer, Integer> hourCount = new HashMap<>();
-        LocalDate today = LocalDate.now();
+        List<ForecastHour> hours = occupancyForecaster.forecast(lotIds)
+                .stream()
+                .filter(h -> h.getOccupied() > 0)
+                .toList();
 
-        for (Booking b : bookings) {
-            if (!b.getStartTime().toLocalDate().equals(today)) continue;
-
-            int hour = b.getStartTime().getHour();
-            hourCount.put(hour, hourCount.getOrDefault(hour, 0) + 1);
-        }
-
-        int max = hourCount.values().stream()
-                .max(Integer::compareTo)
+        double max = hours.stream()
+                .mapToDouble(ForecastHour::getOccupied)
+                .max()
                 .orElse(1);
 
         List<Map<String, Object>> result = new ArrayList<>();
 
-        hourCount.forEach((hour, count) -> {
+        for (ForecastHour h : hours) {
+            int hour = h.getTime().getHour();
             result.add(Map.of(
-                    "hour", String.format("%02d:00 - %02d:00", hour, hour + 1),
-                    "bookings", count,
-                    "percentage", (count * 100) / max
+                    "hour", String.format("%02d:00 - %02d:00", hour, (hour + 1) % 24),
+                    "bookings", (int) Math.round(h.getOccupied()),
+                    "percentage", (int) (h.getOccupied() * 100 / max)
             ));
-        });
+        }
 
         result.sort((a, b) ->
                 ((Integer) b.get("bookings"))
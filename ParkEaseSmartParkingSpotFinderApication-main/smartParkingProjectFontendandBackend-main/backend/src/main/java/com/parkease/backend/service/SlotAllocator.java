@@ -0,0 +1,82 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.VehicleType;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises slot allocation within a parking lot while letting different lots
+ * allocate in parallel.
+ *
+ * Each lot gets its own lock stripe. Under that lock the allocator looks up the
+ * first free slot in {@link SlotAvailabilityIndex} and reserves the interval in
+ * the same step, so two concurrent requests can never be handed the same slot.
+ * Callers must {@link #release} the reservation if persisting the booking fails.
+ */
+@Service
+public class SlotAllocator {
+
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final Map<Long, ReentrantLock> lotLocks = new ConcurrentHashMap<>();
+
+    public SlotAllocator(SlotAvailabilityIndex availabilityIndex) {
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    /**
+     * Picks and reserves a free slot of the lot for [start, end).
+     *
+     * @return the reserved slot id, or empty when the lot is full for that range
+     */
+    public Optional<Long> reserve(Long lotId, LocalDateTime start, LocalDateTime end) {
+        return reserve(lotId, start, end, null);
+    }
+
+    /**
+     * Same as {@link #reserve(Long, LocalDateTime, LocalDateTime)}, choosing among
+     * the slots that suit {@code vehicleType} (null = CAR) in the order of the
+     * lot's {@link SlotSelectionStrategy}.
+     */
+    public Optional<Long> reserve(Long lotId, LocalDateTime start, LocalDateTime end, VehicleType vehicleType) {
+        ReentrantLock lock = lockFor(lotId);
+        lock.lock();
+        try {
+            Optional<Long> slotId = availabilityIndex.findFirstFreeSlot(lotId, start, end, vehicleType);
+            slotId.ifPresent(id -> availabilityIndex.markBooked(lotId, id, start, end));
+            return slotId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Undoes a {@link #reserve} whose booking was never committed. */
+    public void release(Long lotId, Long slotId, LocalDateTime start) {
+        ReentrantLock lock = lockFor(lotId);
+        lock.lock();
+        try {
+            availabilityIndex.markReleased(lotId, slotId, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Re-syncs a slot from the DB after a write conflict so the next reserve() skips it if taken. */
+    public void resync(Long lotId, Long slotId) {
+        ReentrantLock lock = lockFor(lotId);
+        lock.lock();
+        try {
+            availabilityIndex.refreshSlot(lotId, slotId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long lotId) {
+        return lotLocks.computeIfAbsent(lotId, id -> new ReentrantLock());
+    }
+}
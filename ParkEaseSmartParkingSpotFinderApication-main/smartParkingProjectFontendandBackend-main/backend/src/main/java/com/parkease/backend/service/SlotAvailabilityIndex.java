@@ -0,0 +1,358 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory availability timeline per parking lot.
+ *
+ * Each slot keeps its booked intervals in a TreeMap keyed by start time, so an
+ * overlap check for [start, end) is a single lowerEntry() lookup. Every lot
+ * keeps its active slots in one sorted pool per vehicle type, ordered by the
+ * lot's {@link SlotSelectionStrategy}; picking a slot walks that pool in order
+ * and takes the first slot whose intervals leave [start, end) free, so a
+ * booking for tomorrow does not block the slot today. INACTIVE slots are never
+ * offered. A slot the DB marks occupied without any known booking interval is
+ * treated as taken for every range until it is released.
+ *
+ * Interval times are rounded to the DB's microsecond precision, so a booking
+ * read back from the DB releases the same interval its reservation added.
+ *
+ * The index is rebuilt from the DB on startup, loaded lazily for lots created
+ * afterwards, and kept in sync by {@link BookingService}.
+ */
+@Service
+public class SlotAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+
+    static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.ACTIVE, BookingStatus.EXITING);
+
+    private final ParkingSlotRepository slotRepository;
+    private final BookingRepository bookingRepository;
+    private final ParkingLotRepository lotRepository;
+    private final SlotSelectionStrategies strategies;
+
+    private final Map<Long, LotTimeline> lots = new ConcurrentHashMap<>();
+
+    public SlotAvailabilityIndex(
+            ParkingSlotRepository slotRepository,
+            BookingRepository bookingRepository,
+            ParkingLotRepository lotRepository,
+            SlotSelectionStrategies strategies) {
+        this.slotRepository = slotRepository;
+        this.bookingRepository = bookingRepository;
+        this.lotRepository = lotRepository;
+        this.strategies = strategies;
+    }
+
+    /* ================= LIFECYCLE ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, LotTimeline> fresh = new HashMap<>();
+
+        // row = [lotId, latitude, longitude, slotSelection]
+        for (Object[] row : lotRepository.findSlotSelectionSettings()) {
+            fresh.put((Long) row[0], newTimeline(row));
+        }
+
+        Map<Long, Long> uses = usesBySlot(bookingRepository.countBookingsPerSlot());
+        // row = [slotId, lotId, occupied, vehicleType, evOnly, status, latitude, longitude]
+        for (Object[] row : slotRepository.findSlotStates()) {
+            fresh.computeIfAbsent((Long) row[1], id -> new LotTimeline(strategies.resolve(null), null, null))
+                    .addSlot(slotState((Long) row[0], row, 2, uses));
+        }
+
+        // row = [lotId, slotId, startTime, endTime]
+        for (Object[] row : bookingRepository.findBookedIntervals(BLOCKING_STATUSES)) {
+            LotTimeline lot = fresh.get((Long) row[0]);
+            if (lot != null) {
+                lot.addInterval((Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+            }
+        }
+
+        lots.clear();
+        lots.putAll(fresh);
+        log.debug("Slot availability index rebuilt for {} lots", fresh.size());
+    }
+
+    /** Drops a lot so it is reloaded on next access (slots added or removed). */
+    public void invalidate(Long lotId) {
+        lots.remove(lotId);
+    }
+
+    /* ================= QUERIES ================= */
+
+    public Optional<Long> findFirstFreeSlot(Long lotId, LocalDateTime start, LocalDateTime end) {
+        return findFirstFreeSlot(lotId, start, end, null);
+    }
+
+    /** Best free slot for the vehicle under the lot's selection strategy; null type means CAR. */
+    public Optional<Long> findFirstFreeSlot(Long lotId, LocalDateTime start, LocalDateTime end,
+            VehicleType vehicleType) {
+        return timeline(lotId).findFirstFree(start, end, vehicleType);
+    }
+
+    public int slotCount(Long lotId) {
+        return timeline(lotId).size();
+    }
+
+    /* ================= SYNC (called by BookingService) ================= */
+
+    public void markBooked(Long lotId, Long slotId, LocalDateTime start, LocalDateTime end) {
+        timeline(lotId).book(slotId, start, end);
+    }
+
+    public void markReleased(Long lotId, Long slotId, LocalDateTime start) {
+        timeline(lotId).release(slotId, start);
+    }
+
+    /**
+     * Re-reads one slot after a write conflict. DB state is merged into the
+     * timeline (never removed) so reservations still in flight stay intact.
+     */
+    public void refreshSlot(Long lotId, Long slotId) {
+        boolean occupied = slotRepository.findOccupiedById(slotId).orElse(true);
+        LotTimeline lot = timeline(lotId);
+        for (Object[] row : bookingRepository.findBookedIntervalsForSlot(slotId, BLOCKING_STATUSES)) {
+            lot.addInterval(slotId, (LocalDateTime) row[0], (LocalDateTime) row[1]);
+        }
+        if (occupied) {
+            lot.markOccupied(slotId);
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private LotTimeline timeline(Long lotId) {
+        return lots.computeIfAbsent(lotId, this::load);
+    }
+
+    private LotTimeline load(Long lotId) {
+        List<Object[]> settings = lotRepository.findSlotSelectionSettings(lotId);
+        LotTimeline lot = settings.isEmpty()
+                ? new LotTimeline(strategies.resolve(null), null, null)
+                : newTimeline(settings.get(0));
+
+        Map<Long, Long> uses = usesBySlot(bookingRepository.countBookingsPerSlotForLot(lotId));
+        // row = [slotId, occupied, vehicleType, evOnly, status, latitude, longitude]
+        for (Object[] row : slotRepository.findSlotStatesByLot(lotId)) {
+            lot.addSlot(slotState((Long) row[0], row, 1, uses));
+        }
+        for (Object[] row : bookingRepository.findBookedIntervalsForLot(lotId, BLOCKING_STATUSES)) {
+            lot.addInterval((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2]);
+        }
+        return lot;
+    }
+
+    // row = [lotId, latitude, longitude, slotSelection]
+    private LotTimeline newTimeline(Object[] row) {
+        return new LotTimeline(strategies.resolve((String) row[3]), (Double) row[1], (Double) row[2]);
+    }
+
+    // row[from..] = occupied, vehicleType, evOnly, status, latitude, longitude
+    private static SlotTimeline slotState(Long slotId, Object[] row, int from, Map<Long, Long> uses) {
+        return new SlotTimeline(
+                slotId,
+                Boolean.TRUE.equals(row[from]),
+                row.length > from + 1 && row[from + 1] != null ? (VehicleType) row[from + 1] : VehicleType.CAR,
+                row.length > from + 2 && Boolean.TRUE.equals(row[from + 2]),
+                row.length > from + 3 && row[from + 3] == SlotStatus.INACTIVE,
+                row.length > from + 4 ? (Double) row[from + 4] : null,
+                row.length > from + 5 ? (Double) row[from + 5] : null,
+                uses.getOrDefault(slotId, 0L));
+    }
+
+    // rows = [slotId, count]
+    private static Map<Long, Long> usesBySlot(List<Object[]> rows) {
+        Map<Long, Long> uses = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                uses.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return uses;
+    }
+
+    /* ================= STRUCTURES ================= */
+
+    static final class LotTimeline {
+
+        private final SlotSelectionStrategy strategy;
+        private final Double entranceLat;
+        private final Double entranceLng;
+        private final Map<Long, SlotTimeline> slots = new HashMap<>();
+        // active slots per vehicle-type pool, in strategy order
+        private final Map<VehicleType, NavigableSet<SlotTimeline>> pools = new EnumMap<>(VehicleType.class);
+
+        LotTimeline(SlotSelectionStrategy strategy, Double entranceLat, Double entranceLng) {
+            this.strategy = strategy;
+            this.entranceLat = entranceLat;
+            this.entranceLng = entranceLng;
+        }
+
+        synchronized void addSlot(SlotTimeline slot) {
+            slot.distanceToEntrance = distance(entranceLat, entranceLng, slot.latitude, slot.longitude);
+            slots.put(slot.slotId, slot);
+            free(slot);
+        }
+
+        synchronized void addInterval(Long slotId, LocalDateTime start, LocalDateTime end) {
+            SlotTimeline slot = slots.get(slotId);
+            if (slot != null) {
+                slot.intervals.put(instant(start), instant(end));
+            }
+        }
+
+        synchronized Optional<Long> findFirstFree(LocalDateTime start, LocalDateTime end, VehicleType vehicleType) {
+            for (VehicleType type : strategy.pools(vehicleType)) {
+                NavigableSet<SlotTimeline> pool = pools.get(type);
+                if (pool == null) {
+                    continue;
+                }
+                for (SlotTimeline slot : pool) {
+                    if (slot.isFree(start, end)) {
+                        return Optional.of(slot.slotId);
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+
+        synchronized void book(Long slotId, LocalDateTime start, LocalDateTime end) {
+            SlotTimeline slot = slots.get(slotId);
+            if (slot == null) {
+                return;
+            }
+            slot.occupied = true;
+            // the allocator and the after-commit sync both report the same booking
+            if (slot.intervals.put(instant(start), instant(end)) == null) {
+                // leave the pool while the usage key changes
+                take(slot);
+                slot.uses++;
+                free(slot);
+            }
+        }
+
+        synchronized void markOccupied(Long slotId) {
+            SlotTimeline slot = slots.get(slotId);
+            if (slot != null) {
+                slot.occupied = true;
+            }
+        }
+
+        synchronized void release(Long slotId, LocalDateTime start) {
+            SlotTimeline slot = slots.get(slotId);
+            if (slot == null) {
+                return;
+            }
+            if (start != null) {
+                slot.intervals.remove(instant(start));
+            }
+            slot.occupied = false;
+        }
+
+        synchronized int size() {
+            return slots.size();
+        }
+
+        private void free(SlotTimeline slot) {
+            if (!slot.inactive) {
+                pools.computeIfAbsent(slot.pool(), t -> new TreeSet<>(strategy.order())).add(slot);
+            }
+        }
+
+        private void take(SlotTimeline slot) {
+            NavigableSet<SlotTimeline> pool = pools.get(slot.pool());
+            if (pool != null) {
+                pool.remove(slot);
+            }
+        }
+
+        // timestamp columns round to the microsecond, so a booking read back matches its reservation
+        private static LocalDateTime instant(LocalDateTime time) {
+            return time.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+        }
+
+        // equirectangular approximation; plenty for distances inside a lot
+        private static double distance(Double lat1, Double lng1, Double lat2, Double lng2) {
+            if (lat1 == null || lng1 == null || lat2 == null || lng2 == null) {
+                return Double.MAX_VALUE;
+            }
+            double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+            double y = Math.toRadians(lat2 - lat1);
+            return Math.sqrt(x * x + y * y) * 6_371_000;
+        }
+    }
+
+    static final class SlotTimeline implements SlotCandidate {
+
+        private final Long slotId;
+        private final VehicleType vehicleType;
+        private final boolean evOnly;
+        private final boolean inactive;
+        private final Double latitude;
+        private final Double longitude;
+        private double distanceToEntrance = Double.MAX_VALUE;
+        // only changed while the slot is out of its pool (pool order may depend on it)
+        private long uses;
+        // occupied in the DB; only blocks on its own while no booking interval is known
+        private boolean occupied;
+        // start -> end, non-overlapping
+        private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+        SlotTimeline(Long slotId, boolean occupied, VehicleType vehicleType, boolean evOnly, boolean inactive,
+                Double latitude, Double longitude, long uses) {
+            this.slotId = slotId;
+            this.occupied = occupied;
+            this.vehicleType = vehicleType;
+            this.evOnly = evOnly;
+            this.inactive = inactive;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.uses = uses;
+        }
+
+        // EV-only slots can only ever take EVs, whatever their declared type
+        VehicleType pool() {
+            return evOnly ? VehicleType.EV : vehicleType;
+        }
+
+        @Override public Long getSlotId() { return slotId; }
+        @Override public VehicleType getVehicleType() { return vehicleType; }
+        @Override public boolean isEvOnly() { return evOnly; }
+        @Override public double getDistanceToEntrance() { return distanceToEntrance; }
+        @Override public long getUses() { return uses; }
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            if (intervals.isEmpty()) {
+                return !occupied;
+            }
+            // the only interval that can overlap is the last one starting before 'end'
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(end);
+            return candidate == null || !candidate.getValue().isAfter(start);
+        }
+    }
+}
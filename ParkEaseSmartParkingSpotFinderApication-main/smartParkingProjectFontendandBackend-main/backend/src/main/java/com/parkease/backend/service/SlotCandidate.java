@@ -0,0 +1,19 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.VehicleType;
+
+/** What a {@link SlotSelectionStrategy} may look at when ordering free slots. */
+public interface SlotCandidate {
+
+    Long getSlotId();
+
+    VehicleType getVehicleType();
+
+    boolean isEvOnly();
+
+    /** Metres from the lot's entrance (its coordinates); MAX_VALUE when the slot has no position. */
+    double getDistanceToEntrance();
+
+    /** Bookings this slot has taken so far. */
+    long getUses();
+}
@@ -0,0 +1,247 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.VehicleType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Short-lived slot holds (hold → confirm).
+ *
+ * A hold reserves a slot in the in-memory allocator only; no Booking or
+ * Payment row exists until the driver confirms. Expiry is driven by a
+ * DelayQueue drained by a single reaper thread, so an unconfirmed hold is
+ * released exactly when its TTL runs out without ever polling the DB.
+ */
+@Service
+public class SlotHoldService {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(2);
+    public static final Duration MAX_TTL = Duration.ofMinutes(10);
+    // live holds one driver may have at once, so nobody can block a lot with holds
+    public static final int MAX_HOLDS_PER_DRIVER = 3;
+
+    private final SlotAllocator slotAllocator;
+
+    /** How a hold left the service. */
+    public enum HoldOutcome { CONFIRMED, CANCELLED, EXPIRED, ABANDONED }
+
+    private final Map<String, SlotHold> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<SlotHold> expiryQueue = new DelayQueue<>();
+    private final List<BiConsumer<SlotHold, HoldOutcome>> listeners = new CopyOnWriteArrayList<>();
+    // driverId -> live holds
+    private final Map<Long, Integer> liveByDriver = new ConcurrentHashMap<>();
+    private Thread reaper;
+
+    public SlotHoldService(SlotAllocator slotAllocator) {
+        this.slotAllocator = slotAllocator;
+    }
+
+    /* ================= LIFECYCLE ================= */
+
+    @PostConstruct
+    void startReaper() {
+        reaper = new Thread(this::reapExpired, "slot-hold-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    @PreDestroy
+    void stopReaper() {
+        reaper.interrupt();
+    }
+
+    private void reapExpired() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SlotHold hold = expiryQueue.take();
+                // confirmed or cancelled holds are no longer in the map
+                if (holds.remove(hold.getId(), hold)) {
+                    unclaim(hold.getDriverId());
+                    release(hold);
+                    notifyClosed(hold, HoldOutcome.EXPIRED);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("ERROR: Failed to release expired hold: " + e.getMessage());
+            }
+        }
+    }
+
+    /* ================= API ================= */
+
+    /**
+     * Holds a free slot of the lot, or returns empty when none fits.
+     *
+     * @throws HoldLimitException if the driver already has
+     *         {@link #MAX_HOLDS_PER_DRIVER} live holds
+     */
+    public Optional<SlotHold> hold(Long driverId, Long lotId, LocalDateTime start, LocalDateTime end,
+            VehicleType vehicleType, Duration ttl) {
+        Duration effectiveTtl = ttl == null || ttl.isNegative() || ttl.isZero() ? DEFAULT_TTL
+                : (ttl.compareTo(MAX_TTL) > 0 ? MAX_TTL : ttl);
+
+        if (liveByDriver.merge(driverId, 1, Integer::sum) > MAX_HOLDS_PER_DRIVER) {
+            unclaim(driverId);
+            throw new HoldLimitException();
+        }
+        Optional<SlotHold> held = slotAllocator.reserve(lotId, start, end, vehicleType).map(slotId -> {
+            SlotHold hold = new SlotHold(UUID.randomUUID().toString(), driverId, lotId, slotId, start, end,
+                    vehicleType, System.nanoTime() + effectiveTtl.toNanos(), LocalDateTime.now().plus(effectiveTtl));
+            holds.put(hold.getId(), hold);
+            expiryQueue.put(hold);
+            return hold;
+        });
+        if (held.isEmpty()) {
+            unclaim(driverId);
+        }
+        return held;
+    }
+
+    /**
+     * Removes a live hold so the caller can turn it into a booking. The slot
+     * stays reserved; the caller owns it from here on and reports how it went
+     * with {@link #confirmed} or {@link #abandoned}.
+     */
+    public SlotHold take(String holdId, Long driverId) {
+        SlotHold hold = holds.get(holdId);
+        if (hold == null) {
+            throw new RuntimeException("Hold not found or already expired");
+        }
+        if (!hold.getDriverId().equals(driverId)) {
+            throw new RuntimeException("Hold belongs to another driver");
+        }
+        if (!holds.remove(holdId, hold)) {
+            throw new RuntimeException("Hold not found or already expired");
+        }
+        unclaim(driverId);
+        if (hold.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+            release(hold);
+            notifyClosed(hold, HoldOutcome.EXPIRED);
+            throw new RuntimeException("Hold expired");
+        }
+        return hold;
+    }
+
+    /** The taken hold's booking has committed. */
+    public void confirmed(SlotHold hold) {
+        notifyClosed(hold, HoldOutcome.CONFIRMED);
+    }
+
+    /** The taken hold could not be booked and its slot has been released. */
+    public void abandoned(SlotHold hold) {
+        notifyClosed(hold, HoldOutcome.ABANDONED);
+    }
+
+    public boolean cancel(String holdId, Long driverId) {
+        SlotHold hold = holds.get(holdId);
+        if (hold == null || !hold.getDriverId().equals(driverId) || !holds.remove(holdId, hold)) {
+            return false;
+        }
+        unclaim(driverId);
+        release(hold);
+        notifyClosed(hold, HoldOutcome.CANCELLED);
+        return true;
+    }
+
+    public Optional<SlotHold> find(String holdId) {
+        return Optional.ofNullable(holds.get(holdId));
+    }
+
+    /**
+     * Registers a callback run whenever a hold is confirmed, cancelled,
+     * expires or is abandoned. For CANCELLED and EXPIRED the slot has already
+     * been released; for ABANDONED it has also been offered on by whoever
+     * released it.
+     * Runs on the caller's or the reaper's thread, so keep it short.
+     */
+    public void addCloseListener(BiConsumer<SlotHold, HoldOutcome> listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyClosed(SlotHold hold, HoldOutcome outcome) {
+        for (BiConsumer<SlotHold, HoldOutcome> listener : listeners) {
+            try {
+                listener.accept(hold, outcome);
+            } catch (RuntimeException e) {
+                System.err.println("ERROR: Hold listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void unclaim(Long driverId) {
+        liveByDriver.computeIfPresent(driverId, (id, live) -> live > 1 ? live - 1 : null);
+    }
+
+    /** Gives a hold's slot back to the allocator (expired, cancelled or not bookable). */
+    public void release(SlotHold hold) {
+        slotAllocator.release(hold.getLotId(), hold.getSlotId(), hold.getStartTime());
+    }
+
+    /* ================= HOLD ================= */
+
+    public static final class SlotHold implements Delayed {
+
+        private final String id;
+        private final Long driverId;
+        private final Long lotId;
+        private final Long slotId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final VehicleType vehicleType;
+        private final long deadlineNanos;
+        private final LocalDateTime expiresAt;
+
+        SlotHold(String id, Long driverId, Long lotId, Long slotId, LocalDateTime startTime,
+                LocalDateTime endTime, VehicleType vehicleType, long deadlineNanos, LocalDateTime expiresAt) {
+            this.id = id;
+            this.driverId = driverId;
+            this.lotId = lotId;
+            this.slotId = slotId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.vehicleType = vehicleType;
+            this.deadlineNanos = deadlineNanos;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        public String getId() { return id; }
+        public Long getDriverId() { return driverId; }
+        public Long getLotId() { return lotId; }
+        public Long getSlotId() { return slotId; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+        public VehicleType getVehicleType() { return vehicleType; }
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+    }
+
+    public static final class HoldLimitException extends RuntimeException {
+        HoldLimitException() {
+            super("You already hold " + MAX_HOLDS_PER_DRIVER + " slots. Confirm or release one first.");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates a lot's parking slots in bulk.
+ *
+ * ParkingSlot uses IDENTITY ids, which stops Hibernate from batching inserts,
+ * so slots are written straight through JdbcTemplate.batchUpdate: one prepared
+ * statement, executed in JDBC batches. Slot numbers (S-{lotId}-{n}) and UUID
+ * slotIds are generated up front. On MySQL add rewriteBatchedStatements=true
+ * to DATABASE_URL to get multi-row inserts.
+ */
+@Service
+public class SlotProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotProvisioningService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SLOT = """
+                INSERT INTO parking_slots
+                    (parking_lot_id, slot_number, vehicle_type, ev_only, status, occupied, slot_id, version)
+                VALUES (?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParkingSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final OccupancyRegistry occupancyRegistry;
+
+    public SlotProvisioningService(
+            JdbcTemplate jdbcTemplate,
+            ParkingSlotRepository slotRepository,
+            SlotAvailabilityIndex availabilityIndex,
+            OccupancyRegistry occupancyRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slotRepository = slotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyRegistry = occupancyRegistry;
+    }
+
+    /**
+     * Tops the lot up to {@code totalSlots} CAR slots. Existing slots are kept
+     * (they may carry bookings), so shrinking totalSlots never deletes rows.
+     *
+     * @return number of slots inserted
+     */
+    @Transactional
+    public int provisionSlots(ParkingLot lot) {
+        if (lot == null || lot.getId() == null) {
+            return 0;
+        }
+        Set<String> existing = new HashSet<>(slotRepository.findSlotNumbersByLot(lot.getId()));
+        int missing = lot.getTotalSlots() - existing.size();
+        if (missing <= 0) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(missing);
+        for (int n = 1; rows.size() < missing; n++) {
+            String slotNumber = "S-" + lot.getId() + "-" + n;
+            if (existing.contains(slotNumber)) {
+                continue;
+            }
+            rows.add(new Object[] {
+                    lot.getId(), slotNumber, VehicleType.CAR.name(), false,
+                    SlotStatus.AVAILABLE.name(), false, UUID.randomUUID().toString()
+            });
+        }
+
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_SLOT, rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())));
+        }
+        // reload the lot's timeline only once the new rows are visible
+        Long lotId = lot.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    availabilityIndex.invalidate(lotId);
+                }
+            });
+        } else {
+            availabilityIndex.invalidate(lotId);
+        }
+        occupancyRegistry.slotsAdded(lot, rows.size());
+
+        log.debug("Provisioned {} slots for lot {}", rows.size(), lot.getId());
+        return rows.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.VehicleType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link SlotSelectionStrategy} options, looked up by the name a lot
+ * stores in ParkingLot.slotSelection: the built-in ones below plus any
+ * SlotSelectionStrategy bean. Lots without one use
+ * {@code parking.slot-selection.default}.
+ */
+@Component
+public class SlotSelectionStrategies {
+
+    private static final Comparator<SlotCandidate> BY_ID = Comparator.comparing(SlotCandidate::getSlotId);
+
+    /** Lowest slot id first: the order slots were created in. */
+    public static final SlotSelectionStrategy FIRST_FREE = strategy("first-free", BY_ID);
+
+    /** Shortest walk/drive from the lot entrance; slots without coordinates last. */
+    public static final SlotSelectionStrategy NEAREST_ENTRANCE = strategy("nearest-entrance",
+            Comparator.comparingDouble(SlotCandidate::getDistanceToEntrance));
+
+    /** Least-used slot first, spreading wear (and cleaning) across the lot. */
+    public static final SlotSelectionStrategy EVEN_WEAR = strategy("even-wear",
+            Comparator.comparingLong(SlotCandidate::getUses));
+
+    /** Only slots of exactly the requested vehicle type; no fallback to other pools. */
+    public static final SlotSelectionStrategy VEHICLE_TYPE_MATCH = new SlotSelectionStrategy() {
+        @Override
+        public String name() {
+            return "vehicle-type-match";
+        }
+
+        @Override
+        public Comparator<SlotCandidate> order() {
+            return BY_ID;
+        }
+
+        @Override
+        public List<VehicleType> pools(VehicleType requested) {
+            return List.of(requested == null ? VehicleType.CAR : requested);
+        }
+    };
+
+    private final Map<String, SlotSelectionStrategy> byName = new LinkedHashMap<>();
+    private final SlotSelectionStrategy defaultStrategy;
+
+    public SlotSelectionStrategies(
+            ObjectProvider<SlotSelectionStrategy> customStrategies,
+            @Value("${parking.slot-selection.default:first-free}") String defaultName) {
+        for (SlotSelectionStrategy s : List.of(FIRST_FREE, NEAREST_ENTRANCE, EVEN_WEAR, VEHICLE_TYPE_MATCH)) {
+            byName.put(s.name(), s);
+        }
+        customStrategies.orderedStream().forEach(s -> byName.put(s.name(), s));
+        this.defaultStrategy = byName.getOrDefault(defaultName, FIRST_FREE);
+    }
+
+    /** The named strategy, or the default for null/unknown names. */
+    public SlotSelectionStrategy resolve(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultStrategy;
+        }
+        return byName.getOrDefault(name.trim().toLowerCase(), defaultStrategy);
+    }
+
+    public boolean exists(String name) {
+        return name != null && byName.containsKey(name.trim().toLowerCase());
+    }
+
+    public Set<String> names() {
+        return byName.keySet();
+    }
+
+    private static SlotSelectionStrategy strategy(String name, Comparator<SlotCandidate> order) {
+        Comparator<SlotCandidate> withTieBreak = order.thenComparing(BY_ID);
+        return new SlotSelectionStrategy() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Comparator<SlotCandidate> order() {
+                return withTieBreak;
+            }
+        };
+    }
+}
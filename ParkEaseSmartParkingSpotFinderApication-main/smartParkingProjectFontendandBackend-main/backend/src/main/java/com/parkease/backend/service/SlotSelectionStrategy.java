@@ -0,0 +1,47 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.VehicleType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides which free slot of a lot a booking gets.
+ *
+ * {@link SlotAvailabilityIndex} keeps each lot's free slots in one sorted pool
+ * per vehicle type (EV-only slots always sit in the EV pool), ordered by
+ * {@link #order()}. A request walks {@link #pools} in turn and takes the first
+ * slot that is free for its time range, so choosing is a lookup at the head of
+ * a sorted set rather than a scan.
+ *
+ * Keys used by {@link #order()} must not change while a slot is free; the
+ * index re-inserts a slot whenever it becomes free again.
+ */
+public interface SlotSelectionStrategy {
+
+    /** Value stored in ParkingLot.slotSelection. */
+    String name();
+
+    /** Preference among free slots of the same pool; ties are broken by slot id. */
+    Comparator<SlotCandidate> order();
+
+    /**
+     * Pools a vehicle may park in, most suitable first: its own type, then
+     * other car-sized slots. Only EVs use the EV pool, and they try it first,
+     * which keeps chargers for the cars that need them.
+     */
+    default List<VehicleType> pools(VehicleType requested) {
+        switch (requested == null ? VehicleType.CAR : requested) {
+            case BIKE:
+                return List.of(VehicleType.BIKE);
+            case EV:
+                return List.of(VehicleType.EV, VehicleType.CAR, VehicleType.STANDARD, VehicleType.PREMIUM);
+            case STANDARD:
+                return List.of(VehicleType.STANDARD, VehicleType.CAR, VehicleType.PREMIUM);
+            case PREMIUM:
+                return List.of(VehicleType.PREMIUM, VehicleType.CAR, VehicleType.STANDARD);
+            default:
+                return List.of(VehicleType.CAR, VehicleType.STANDARD, VehicleType.PREMIUM);
+        }
+    }
+}
@@ -20,15 +20,24 @@ public class SpaceManagementService {
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final LotSearchSnapshot lotSearchSnapshot;
+    private final OccupancyRegistry occupancyRegistry;
 
     public SpaceManagementService(
             UserRepository userRepository,
             ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository
+            ParkingSlotRepository parkingSlotRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            LotSearchSnapshot lotSearchSnapshot,
+            OccupancyRegistry occupancyRegistry
     ) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.lotSearchSnapshot = lotSearchSnapshot;
+        this.occupancyRegistry = occupancyRegistry;
     }
 
     /* ================= HELPER METHODS ================= */
@@ -88,6 +97,8 @@ public class SpaceManagementService {
         slot.setParkingLot(lot);
 
         parkingSlotRepository.save(slot);
+        slotAvailabilityIndex.invalidate(lot.getId());
+        occupancyRegistry.slotsAdded(lot, 1);
     }
 
     public void toggleSlot(String email, Long slotId) {
@@ -104,6 +115,8 @@ public class SpaceManagementService {
         }
 
         parkingSlotRepository.save(slot);
+        // inactive slots are never offered for booking
+        slotAvailabilityIndex.invalidate(lot.getId());
     }
 
     public void deleteSlot(String email, Long slotId) {
@@ -114,5 +127,8 @@ public class SpaceManagementService {
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
 
         parkingSlotRepository.delete(slot);
+        slotAvailabilityIndex.invalidate(lot.getId());
+        occupancyRegistry.slotRemoved(lot.getId(), slot.isOccupied());
+        lotSearchSnapshot.refresh(lot.getId());
     }
 }
@@ -0,0 +1,116 @@
+package com.parkease.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese & Lauck).
+ *
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs} each; timers beyond
+ * its span go to a coarser overflow wheel whose tick is this wheel's whole
+ * span, created on demand. Adding a timer is O(1) and advancing the clock only
+ * touches the buckets it passes, so hundreds of thousands of pending timers
+ * cost nothing until they are due. Timers in a coarse bucket are cascaded
+ * down into finer wheels as their time approaches.
+ *
+ * Not thread-safe; callers synchronise.
+ */
+class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Timer<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules {@code task} at {@code deadlineMs}.
+     *
+     * @return false if the deadline is already due; the caller should run it now
+     */
+    boolean add(long deadlineMs, T task) {
+        return add(new Timer<>(deadlineMs, task));
+    }
+
+    /** Moves the clock to {@code nowMs}, handing every timer that became due to {@code onExpire}. */
+    void advance(long nowMs, Consumer<T> onExpire) {
+        advanceTimers(nowMs, timer -> onExpire.accept(timer.task));
+    }
+
+    /** Pending timers across all levels. */
+    int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private boolean add(Timer<T> timer) {
+        if (timer.deadlineMs < currentTime + tickMs) {
+            return false;
+        }
+        if (timer.deadlineMs < currentTime + interval) {
+            buckets.get(bucketIndex(timer.deadlineMs)).add(timer);
+            size++;
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.add(timer);
+    }
+
+    private void advanceTimers(long nowMs, Consumer<Timer<T>> onExpire) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+
+            // crossing a coarse tick: pull the overflow bucket down into this wheel
+            if (overflow != null && currentTime % interval == 0) {
+                overflow.advanceTimers(currentTime, timer -> reinsert(timer, onExpire));
+            }
+
+            List<Timer<T>> bucket = buckets.get(bucketIndex(currentTime));
+            if (!bucket.isEmpty()) {
+                List<Timer<T>> due = new ArrayList<>(bucket);
+                bucket.clear();
+                size -= due.size();
+                for (Timer<T> timer : due) {
+                    reinsert(timer, onExpire);
+                }
+            }
+        }
+    }
+
+    private void reinsert(Timer<T> timer, Consumer<Timer<T>> onExpire) {
+        if (!add(timer)) {
+            onExpire.accept(timer);
+        }
+    }
+
+    private int bucketIndex(long timeMs) {
+        return (int) ((timeMs / tickMs) % wheelSize);
+    }
+
+    private static final class Timer<T> {
+        private final long deadlineMs;
+        private final T task;
+
+        Timer(long deadlineMs, T task) {
+            this.deadlineMs = deadlineMs;
+            this.task = task;
+        }
+    }
+}
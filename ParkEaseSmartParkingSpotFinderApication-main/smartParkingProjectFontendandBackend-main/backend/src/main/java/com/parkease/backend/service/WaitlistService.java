@@ -0,0 +1,301 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Notification;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.NotificationRepository;
+import com.parkease.backend.service.SlotHoldService.HoldOutcome;
+import com.parkease.backend.service.SlotHoldService.SlotHold;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-lot FIFO waitlist for drivers who found a lot full.
+ *
+ * Instead of drivers polling the booking endpoint, every slot release
+ * (booking ended, cancelled or auto-completed, hold cancelled or expired)
+ * triggers {@link #onSlotReleased}, which walks the lot's queue in arrival
+ * order and turns the first request whose time range now fits into a short
+ * {@link SlotHoldService} hold. The driver is notified and confirms the hold
+ * through the normal hold endpoints; an offer that is not confirmed in time
+ * expires and the slot moves on to the next driver.
+ *
+ * State is in memory only, like the holds themselves.
+ */
+@Service
+public class WaitlistService {
+
+    public static final Duration OFFER_TTL = Duration.ofMinutes(2);
+
+    // waiting entries examined per release; later ones get the next release
+    private static final int MAX_SCAN = 100;
+
+    public enum EntryState { WAITING, OFFERED }
+
+    private final SlotHoldService slotHoldService;
+    private final NotificationRepository notificationRepository;
+    // offers are made from afterCommit callbacks, where the caller's transaction is already finished
+    private final TransactionTemplate notifyTransaction;
+
+    private final Map<Long, Deque<WaitlistEntry>> queues = new ConcurrentHashMap<>();
+    private final Map<String, WaitlistEntry> entries = new ConcurrentHashMap<>();
+    // "driverId|lotId" -> entry, one live entry per driver and lot
+    private final Map<String, WaitlistEntry> byDriverLot = new ConcurrentHashMap<>();
+    // holdId -> entry the hold was offered to
+    private final Map<String, WaitlistEntry> offers = new ConcurrentHashMap<>();
+
+    public WaitlistService(SlotHoldService slotHoldService, NotificationRepository notificationRepository,
+            PlatformTransactionManager transactionManager) {
+        this.slotHoldService = slotHoldService;
+        this.notificationRepository = notificationRepository;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        slotHoldService.addCloseListener(this::onHoldClosed);
+    }
+
+    /* ================= API ================= */
+
+    /**
+     * Queues the driver for the lot, or returns their existing entry while it
+     * is still live. If a slot happens to be free already the entry comes back
+     * OFFERED.
+     */
+    public WaitlistEntry join(Long driverId, Long lotId, LocalDateTime start, LocalDateTime end,
+            VehicleType vehicleType) {
+        String key = driverLotKey(driverId, lotId);
+        WaitlistEntry existing = byDriverLot.get(key);
+        if (existing != null) {
+            if (!isFinished(existing)) {
+                return existing;
+            }
+            // window over or offer gone: replace it rather than hand it back
+            discard(existing);
+        }
+        WaitlistEntry entry = new WaitlistEntry(UUID.randomUUID().toString(), driverId, lotId, start, end,
+                vehicleType);
+        existing = byDriverLot.putIfAbsent(key, entry);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(entry.getId(), entry);
+
+        Deque<WaitlistEntry> queue = queue(lotId);
+        synchronized (queue) {
+            if (!offer(entry)) {
+                queue.addLast(entry);
+            }
+        }
+        return entry;
+    }
+
+    public Optional<WaitlistEntry> find(String entryId, Long driverId) {
+        WaitlistEntry entry = entries.get(entryId);
+        if (entry == null || !entry.getDriverId().equals(driverId)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    /** 1-based place in the lot's queue, or 0 once the entry holds an offer. */
+    public int position(WaitlistEntry entry) {
+        if (entry.getState() != EntryState.WAITING) {
+            return 0;
+        }
+        Deque<WaitlistEntry> queue = queue(entry.getLotId());
+        synchronized (queue) {
+            int position = 1;
+            for (WaitlistEntry e : queue) {
+                if (e == entry) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+
+    /** Leaves the waitlist; an outstanding offer is given up as well. */
+    public boolean leave(String entryId, Long driverId) {
+        WaitlistEntry entry = find(entryId, driverId).orElse(null);
+        if (entry == null) {
+            return false;
+        }
+        Deque<WaitlistEntry> queue = queue(entry.getLotId());
+        synchronized (queue) {
+            queue.remove(entry);
+        }
+        String holdId = entry.getHoldId();
+        remove(entry);
+        if (holdId != null) {
+            // fires onHoldClosed(CANCELLED), which hands the slot to the next driver
+            slotHoldService.cancel(holdId, driverId);
+        }
+        return true;
+    }
+
+    /* ================= HANDOFF ================= */
+
+    /** Called once a slot of the lot is free again (after commit). */
+    public void onSlotReleased(Long lotId) {
+        Deque<WaitlistEntry> queue = queues.get(lotId);
+        if (queue == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (queue) {
+            Iterator<WaitlistEntry> it = queue.iterator();
+            for (int scanned = 0; it.hasNext() && scanned < MAX_SCAN; scanned++) {
+                WaitlistEntry entry = it.next();
+                if (!entry.getEndTime().isAfter(now)) {
+                    // the requested window is over, nothing left to offer
+                    it.remove();
+                    remove(entry);
+                } else if (offer(entry)) {
+                    it.remove();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onHoldClosed(SlotHold hold, HoldOutcome outcome) {
+        WaitlistEntry entry = offers.remove(hold.getId());
+        if (entry != null) {
+            // confirmed: the driver has their booking; otherwise the offer lapsed
+            remove(entry);
+            if (outcome == HoldOutcome.EXPIRED) {
+                System.out.println("DEBUG: Waitlist offer " + hold.getId() + " expired for driver "
+                        + entry.getDriverId());
+            }
+        }
+        // an abandoned hold's slot was handed on when it was released
+        if (outcome == HoldOutcome.CANCELLED || outcome == HoldOutcome.EXPIRED) {
+            onSlotReleased(hold.getLotId());
+        }
+    }
+
+    // caller holds the lot's queue lock
+    private boolean offer(WaitlistEntry entry) {
+        Optional<SlotHold> hold;
+        try {
+            hold = slotHoldService.hold(entry.getDriverId(), entry.getLotId(),
+                    entry.getStartTime(), entry.getEndTime(), entry.getVehicleType(), OFFER_TTL);
+        } catch (SlotHoldService.HoldLimitException e) {
+            // the driver is at their hold limit; the slot goes to someone else
+            return false;
+        }
+        if (hold.isEmpty()) {
+            return false;
+        }
+        entry.offered(hold.get());
+        offers.put(hold.get().getId(), entry);
+        notifyDriver(entry);
+        System.out.println("DEBUG: Waitlist offered slot " + hold.get().getSlotId() + " in lot "
+                + entry.getLotId() + " to driver " + entry.getDriverId());
+        return true;
+    }
+
+    private void notifyDriver(WaitlistEntry entry) {
+        try {
+            Notification notification = new Notification(
+                    "A slot opened up for your waitlisted booking. Confirm it before "
+                            + entry.getOfferExpiresAt().toLocalTime().withNano(0) + ".",
+                    "DRIVER");
+            notification.setTitle("Slot available");
+            notification.setType("WAITLIST_OFFER");
+            notification.setRefId(entry.getLotId());
+            notification.setUserId(entry.getDriverId());
+            notifyTransaction.executeWithoutResult(status -> notificationRepository.save(notification));
+        } catch (RuntimeException e) {
+            // the offer stands; the driver still sees it on the waitlist entry
+            System.err.println("ERROR: Could not notify driver " + entry.getDriverId() + ": " + e.getMessage());
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private boolean isFinished(WaitlistEntry entry) {
+        if (!entry.getEndTime().isAfter(LocalDateTime.now())) {
+            return true;
+        }
+        String holdId = entry.getHoldId();
+        return holdId != null && slotHoldService.find(holdId).isEmpty();
+    }
+
+    private void discard(WaitlistEntry entry) {
+        Deque<WaitlistEntry> queue = queue(entry.getLotId());
+        synchronized (queue) {
+            queue.remove(entry);
+        }
+        String holdId = entry.getHoldId();
+        if (holdId != null) {
+            offers.remove(holdId, entry);
+        }
+        remove(entry);
+    }
+
+    private void remove(WaitlistEntry entry) {
+        entries.remove(entry.getId());
+        byDriverLot.remove(driverLotKey(entry.getDriverId(), entry.getLotId()), entry);
+    }
+
+    private Deque<WaitlistEntry> queue(Long lotId) {
+        return queues.computeIfAbsent(lotId, id -> new ArrayDeque<>());
+    }
+
+    private static String driverLotKey(Long driverId, Long lotId) {
+        return driverId + "|" + lotId;
+    }
+
+    /* ================= ENTRY ================= */
+
+    public static final class WaitlistEntry {
+
+        private final String id;
+        private final Long driverId;
+        private final Long lotId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final VehicleType vehicleType;
+        private final LocalDateTime joinedAt = LocalDateTime.now();
+        private volatile String holdId;
+        private volatile LocalDateTime offerExpiresAt;
+
+        WaitlistEntry(String id, Long driverId, Long lotId, LocalDateTime startTime, LocalDateTime endTime,
+                VehicleType vehicleType) {
+            this.id = id;
+            this.driverId = driverId;
+            this.lotId = lotId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.vehicleType = vehicleType;
+        }
+
+        void offered(SlotHold hold) {
+            this.offerExpiresAt = hold.getExpiresAt();
+            this.holdId = hold.getId();
+        }
+
+        public EntryState getState() { return holdId != null ? EntryState.OFFERED : EntryState.WAITING; }
+        public String getId() { return id; }
+        public Long getDriverId() { return driverId; }
+        public Long getLotId() { return lotId; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+        public VehicleType getVehicleType() { return vehicleType; }
+        public LocalDateTime getJoinedAt() { return joinedAt; }
+        public String getHoldId() { return holdId; }
+        public LocalDateTime getOfferExpiresAt() { return offerExpiresAt; }
+    }
+}
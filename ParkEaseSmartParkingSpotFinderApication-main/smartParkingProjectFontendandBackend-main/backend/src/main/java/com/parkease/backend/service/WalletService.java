@@ -0,0 +1,50 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.entity.WalletTransaction;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.repository.WalletTransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Top-ups and withdrawals on a user's wallet. The balance is only ever moved
+ * by an atomic UPDATE (never read, changed and saved back as an entity), so
+ * these cannot overwrite a booking debit or an outbox credit that commits in
+ * between.
+ */
+@Service
+public class WalletService {
+
+    private final UserRepository userRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+
+    public WalletService(UserRepository userRepository, WalletTransactionRepository walletTransactionRepository) {
+        this.userRepository = userRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+    }
+
+    /** Adds {@code amount} (and records a CREDIT when a description is given); returns the new balance. */
+    @Transactional
+    public double credit(User user, double amount, String description) {
+        if (userRepository.creditWallet(user.getId(), amount) == 0) {
+            throw new RuntimeException("User not found");
+        }
+        if (description != null) {
+            walletTransactionRepository.save(new WalletTransaction(user, amount, "CREDIT", description));
+        }
+        return userRepository.findWalletBalance(user.getId());
+    }
+
+    /** Takes {@code amount} if the balance covers it and records a DEBIT; empty when it does not. */
+    @Transactional
+    public Optional<Double> debit(User user, double amount, String description) {
+        if (userRepository.debitWallet(user.getId(), amount) == 0) {
+            return Optional.empty();
+        }
+        walletTransactionRepository.save(new WalletTransaction(user, amount, "DEBIT", description));
+        return Optional.of(userRepository.findWalletBalance(user.getId()));
+    }
+}
@@ -0,0 +1,184 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.dto.LotSearchFilter;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.LotSearchSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DriverParkingSearchQueryCountTest {
+
+    @Autowired
+    private DriverParkingController controller;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+    @Autowired
+    private LotSearchSnapshot lotSearchSnapshot;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User approved;
+    private User pending;
+    private final List<ParkingLot> lots = new ArrayList<>();
+    private final List<ParkingSlot> slots = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        approved = provider(true);
+        pending = provider(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parkingSlotRepository.deleteAllById(slots.stream().map(ParkingSlot::getId).toList());
+        parkingLotRepository.deleteAll(lots);
+        userRepository.deleteAll(List.of(approved, pending));
+    }
+
+    @Test
+    void snapshotLoadsInOneQueryRegardlessOfLotCount() {
+        for (int i = 0; i < 3; i++) {
+            lot(approved, 4, 1);
+        }
+        long few = reloadStatements();
+
+        for (int i = 0; i < 20; i++) {
+            lot(approved, 4, 2);
+        }
+        lot(pending, 4, 0);
+        long many = reloadStatements();
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void searchIsServedWithoutQueries() {
+        lot(approved, 4, 1);
+        lotSearchSnapshot.reload();
+
+        statistics.clear();
+        search();
+        search();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchCountsOccupiedSlotsAndSkipsUnapprovedProviders() {
+        ParkingLot busy = lot(approved, 3, 2);
+        ParkingLot hidden = lot(pending, 3, 0);
+        lotSearchSnapshot.reload();
+
+        List<Map<String, Object>> response = search();
+
+        Map<String, Object> row = response.stream()
+                .filter(m -> busy.getId().equals(m.get("id")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, row.get("availableSlots"));
+        assertEquals(approved.getFullName(), row.get("ownerName"));
+        assertFalse(response.stream().anyMatch(m -> hidden.getId().equals(m.get("id"))));
+        assertTrue(response.stream().noneMatch(m -> m.get("distance") != null));
+    }
+
+    @Test
+    void refreshPatchesOneLotsAvailability() {
+        ParkingLot lot = lot(approved, 3, 2);
+        lotSearchSnapshot.reload();
+
+        Long occupiedId = slots.stream().filter(ParkingSlot::isOccupied).findFirst().orElseThrow().getId();
+        ParkingSlot freed = parkingSlotRepository.findById(occupiedId).orElseThrow();
+        freed.setOccupied(false);
+        parkingSlotRepository.save(freed);
+        lotSearchSnapshot.refresh(lot.getId());
+
+        Map<String, Object> row = search().stream()
+                .filter(m -> lot.getId().equals(m.get("id")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, row.get("availableSlots"));
+    }
+
+    // statistics are global, so a scheduled job (outbox poll, lifecycle tick) can land in
+    // one window; the fewest statements over a few reloads is the reload's own count
+    private long reloadStatements() {
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            statistics.clear();
+            lotSearchSnapshot.reload();
+            fewest = Math.min(fewest, statistics.getPrepareStatementCount());
+        }
+        return fewest;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> search() {
+        ResponseEntity<?> response = controller.getActiveProviders(null, null, null, null, new LotSearchFilter());
+        assertEquals(200, response.getStatusCode().value());
+        return (List<Map<String, Object>>) response.getBody();
+    }
+
+    private User provider(boolean isApproved) {
+        User user = new User();
+        user.setFullName("Provider " + (isApproved ? "A" : "P"));
+        user.setEmail(UUID.randomUUID() + "@search.test");
+        user.setPhoneNumber(String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L)));
+        user.setPassword("x");
+        user.setRole(Role.PROVIDER);
+        user.setApproved(isApproved);
+        return userRepository.save(user);
+    }
+
+    private ParkingLot lot(User provider, int slotCount, int occupied) {
+        ParkingLot lot = new ParkingLot();
+        lot.setProvider(provider);
+        lot.setName("Search Lot " + lots.size());
+        lot.setAddress("Test Street");
+        lot.setTotalSlots(slotCount);
+        lot = parkingLotRepository.save(lot);
+        lots.add(lot);
+
+        List<ParkingSlot> created = new ArrayList<>();
+        for (int i = 0; i < slotCount; i++) {
+            ParkingSlot slot = new ParkingSlot();
+            slot.setParkingLot(lot);
+            slot.setSlotNumber("S-" + (i + 1));
+            slot.setVehicleType(VehicleType.CAR);
+            slot.setOccupied(i < occupied);
+            created.add(slot);
+        }
+        slots.addAll(parkingSlotRepository.saveAll(created));
+        return lot;
+    }
+}
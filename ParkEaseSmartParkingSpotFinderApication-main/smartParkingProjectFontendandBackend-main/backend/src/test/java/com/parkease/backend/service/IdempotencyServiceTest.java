@@ -0,0 +1,136 @@
+package com.parkease.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parkease.backend.entity.IdempotencyRecord;
+import com.parkease.backend.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final String ENDPOINT = "POST /api/driver/wallet/add";
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyService service;
+    private AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findByRecordKey(anyString())).thenReturn(Optional.empty());
+        service = new IdempotencyService(repository, new ObjectMapper());
+        runs = new AtomicInteger();
+    }
+
+    private ResponseEntity<?> deposit(String key, Map<String, Object> payload) {
+        return service.execute(key, "driver@parkease.test", ENDPOINT, payload, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of("newBalance", 100.0));
+        });
+    }
+
+    @Test
+    void retryIsReplayedWithoutRunningAgain() {
+        assertEquals(200, deposit("k1", Map.of("amount", 100)).getStatusCode().value());
+        ResponseEntity<?> replay = deposit("k1", Map.of("amount", 100));
+
+        assertEquals(1, runs.get());
+        assertEquals(200, replay.getStatusCode().value());
+        assertEquals("true", replay.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals("{\"newBalance\":100.0}", replay.getBody());
+    }
+
+    @Test
+    void keyOrderDoesNotChangeThePayload() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("amount", 100);
+        first.put("note", "top-up");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("note", "top-up");
+        second.put("amount", 100);
+
+        deposit("k1", first);
+        assertEquals(200, deposit("k1", second).getStatusCode().value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keyReusedWithAnotherPayloadIsRejected() {
+        deposit("k1", Map.of("amount", 100));
+        ResponseEntity<?> reused = deposit("k1", Map.of("amount", 500));
+
+        assertEquals(422, reused.getStatusCode().value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedResponseIsNotStored() {
+        service.execute("k1", "driver@parkease.test", ENDPOINT, Map.of("amount", 100), () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.badRequest().body(Map.of("message", "Insufficient balance"));
+        });
+        deposit("k1", Map.of("amount", 100));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void requestWithoutKeyAlwaysRuns() {
+        deposit(null, Map.of("amount", 100));
+        deposit(null, Map.of("amount", 100));
+
+        assertEquals(2, runs.get());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void storedRecordAnswersAfterRestart() {
+        when(repository.findByRecordKey("driver@parkease.test|" + ENDPOINT + "|k1"))
+                .thenReturn(Optional.of(new IdempotencyRecord("driver@parkease.test|" + ENDPOINT + "|k1", 200,
+                        "{\"newBalance\":100.0}", null)));
+
+        assertEquals(200, deposit("k1", Map.of("amount", 100)).getStatusCode().value());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void expiredResponsesAreNotReplayed() {
+        IdempotencyRecord stale = new IdempotencyRecord("driver@parkease.test|" + ENDPOINT + "|old", 200,
+                "{}", null);
+        ReflectionTestUtils.setField(stale, "createdAt", LocalDateTime.now().minusHours(25));
+        when(repository.findByRecordKey("driver@parkease.test|" + ENDPOINT + "|old"))
+                .thenReturn(Optional.of(stale));
+
+        deposit("old", Map.of("amount", 100));
+        assertEquals(1, runs.get());
+        verify(repository).delete(stale);
+
+        // the in-memory copy expires the same way
+        deposit("k1", Map.of("amount", 100));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> cache = (Map<String, Object>) ReflectionTestUtils.getField(service, "cache");
+        Object stored = cache.get("driver@parkease.test|" + ENDPOINT + "|k1");
+        ReflectionTestUtils.setField(stored, "storedAt", LocalDateTime.now().minusHours(25));
+        service.purgeExpired();
+        assertFalse(cache.containsKey("driver@parkease.test|" + ENDPOINT + "|k1"));
+        assertTrue(cache.containsKey("driver@parkease.test|" + ENDPOINT + "|old"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.OutboxEvent;
+import com.parkease.backend.enumtype.OutboxStatus;
+import com.parkease.backend.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentOutboxWorkerTest {
+
+    // ids marked PROCESSED, as the DB would see them after commit
+    private final Set<Long> processed = ConcurrentHashMap.newKeySet();
+    // ids claimed by the transaction running on this thread, undone on rollback
+    private final ThreadLocal<List<Long>> claimed = ThreadLocal.withInitial(ArrayList::new);
+    private final List<Long> applied = Collections.synchronizedList(new ArrayList<>());
+
+    private OutboxEventRepository repository;
+    private PaymentService paymentService;
+    private PaymentOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        when(repository.markProcessed(anyList(), any())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            int updated = 0;
+            for (Long id : ids) {
+                if (processed.add(id)) {
+                    claimed.get().add(id);
+                    updated++;
+                }
+            }
+            return updated;
+        });
+
+        paymentService = mock(PaymentService.class);
+        doAnswer(inv -> {
+            List<OutboxEvent> events = inv.getArgument(0);
+            events.forEach(event -> applied.add(event.getId()));
+            return null;
+        }).when(paymentService).applyPaidBookings(anyList());
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        doAnswer(inv -> {
+            claimed.get().clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(inv -> {
+            processed.removeAll(claimed.get());
+            claimed.get().clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        worker = new PaymentOutboxWorker(repository, paymentService, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    private static OutboxEvent event(long id, long providerId) {
+        OutboxEvent event = new OutboxEvent(OutboxEvent.BOOKING_PAID, 100 + id, providerId, 50.0, 5.0, "WALLET");
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+
+    private void pending(OutboxEvent... events) {
+        when(repository.findBatch(eq(OutboxStatus.PENDING), any())).thenReturn(List.of(events));
+    }
+
+    @Test
+    void everyEventIsAppliedOnce() {
+        pending(event(1, 1), event(2, 2), event(3, 1), event(4, 3));
+
+        worker.drain();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), applied.stream().sorted().toList());
+        assertEquals(Set.of(1L, 2L, 3L, 4L), processed);
+    }
+
+    @Test
+    void eventsOfOneProviderAreAppliedTogether() {
+        pending(event(1, 1), event(2, 5), event(3, 9));
+
+        worker.drain();
+
+        // 1, 5 and 9 share a partition
+        verify(paymentService, times(1)).applyPaidBookings(anyList());
+        assertEquals(List.of(1L, 2L, 3L), applied);
+    }
+
+    @Test
+    void eventProcessedElsewhereIsNotCreditedAgain() {
+        processed.add(2L);
+        pending(event(1, 1), event(2, 1), event(3, 1));
+
+        worker.drain();
+
+        assertEquals(List.of(1L, 3L), applied);
+        assertEquals(Set.of(1L, 2L, 3L), processed);
+        verify(repository, never()).recordFailedAttempt(anyList(), anyString());
+    }
+
+    @Test
+    void secondRelayOfTheSameBatchAppliesNothing() {
+        pending(event(1, 1), event(2, 2));
+
+        worker.drain();
+        worker.drain();
+
+        assertEquals(List.of(1L, 2L), applied.stream().sorted().toList());
+    }
+
+    @Test
+    void failingEventIsIsolatedAndRecorded() {
+        doAnswer(inv -> {
+            List<OutboxEvent> events = inv.getArgument(0);
+            if (events.stream().anyMatch(event -> event.getId() == 2L)) {
+                throw new IllegalStateException("provider missing");
+            }
+            events.forEach(event -> applied.add(event.getId()));
+            return null;
+        }).when(paymentService).applyPaidBookings(anyList());
+        pending(event(1, 1), event(2, 1), event(3, 1));
+
+        worker.drain();
+
+        assertEquals(List.of(1L, 3L), applied);
+        assertFalse(processed.contains(2L));
+        verify(repository).recordFailedAttempt(List.of(2L), "provider missing");
+        verify(repository).markExhausted(eq(List.of(2L)), anyInt());
+    }
+}
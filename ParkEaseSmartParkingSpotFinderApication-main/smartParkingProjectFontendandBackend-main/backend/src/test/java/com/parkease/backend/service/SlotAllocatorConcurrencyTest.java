@@ -0,0 +1,131 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotAllocatorConcurrencyTest {
+
+    private static final int LOTS = 4;
+    private static final int SLOTS_PER_LOT = 25;
+    private static final int THREADS = 64;
+
+    private SlotAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        ParkingSlotRepository slotRepository = mock(ParkingSlotRepository.class);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+
+        when(slotRepository.findSlotStatesByLot(anyLong())).thenAnswer(inv -> {
+            long lotId = inv.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < SLOTS_PER_LOT; i++) {
+                // [slotId, occupied, vehicleType, evOnly, status, latitude, longitude]
+                rows.add(new Object[] { lotId * 1000 + i, false, VehicleType.CAR, false, SlotStatus.AVAILABLE,
+                        null, null });
+            }
+            return rows;
+        });
+        when(bookingRepository.findBookedIntervalsForLot(anyLong(), any())).thenReturn(List.of());
+
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(slotRepository, bookingRepository,
+                mock(ParkingLotRepository.class), new SlotSelectionStrategies(mock(ObjectProvider.class), "first-free"));
+        for (long lotId = 1; lotId <= LOTS; lotId++) {
+            index.slotCount(lotId); // warm up outside the race
+        }
+        allocator = new SlotAllocator(index);
+    }
+
+    @Test
+    void sameIntervalIsNeverHandedOutTwice() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2);
+
+        ConcurrentLinkedQueue<long[]> granted = new ConcurrentLinkedQueue<>();
+        runConcurrently(THREADS * 20, () -> {
+            long lotId = 1 + ThreadLocalRandom.current().nextInt(LOTS);
+            allocator.reserve(lotId, start, end).ifPresent(slotId -> granted.add(new long[] { lotId, slotId }));
+        });
+
+        // every slot of every lot is handed out exactly once, then the lots are full
+        assertEquals(LOTS * SLOTS_PER_LOT, granted.size());
+        assertEquals(LOTS * SLOTS_PER_LOT, granted.stream().map(g -> g[1]).distinct().count());
+        for (long lotId = 1; lotId <= LOTS; lotId++) {
+            assertFalse(allocator.reserve(lotId, start, end).isPresent());
+        }
+    }
+
+    @Test
+    void reserveAndReleaseUnderContentionKeepsSlotsExclusive() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(1);
+
+        Map<Long, Integer> holders = new HashMap<>();
+        ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(THREADS * 200, () -> {
+            long lotId = 1 + ThreadLocalRandom.current().nextInt(LOTS);
+            Optional<Long> slotId = allocator.reserve(lotId, start, end);
+            if (slotId.isEmpty()) {
+                return;
+            }
+            synchronized (holders) {
+                if (holders.merge(slotId.get(), 1, Integer::sum) > 1) {
+                    violations.add("slot " + slotId.get() + " double booked");
+                }
+            }
+            Thread.yield();
+            synchronized (holders) {
+                holders.merge(slotId.get(), -1, Integer::sum);
+            }
+            allocator.release(lotId, slotId.get(), start);
+        });
+
+        assertTrue(violations.isEmpty(), () -> String.join(", ", violations));
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(() -> {
+                try {
+                    go.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,88 @@
+package com.parkease.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int SIZE = 60;
+    private static final long START = 1_000_000;
+
+    @Test
+    void timerInTheFirstWheelFiresOnItsTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, START);
+        assertTrue(wheel.add(START + 5 * TICK, "a"));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 4 * TICK, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(START + 5 * TICK, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void dueDeadlineIsRefused() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, START);
+        assertFalse(wheel.add(START, "now"));
+        assertFalse(wheel.add(START - TICK, "past"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overflowTimersCascadeDownAndFireOnTime() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, SIZE, START);
+        // one past the first wheel, one past the second (60 s and 60 min spans)
+        long minutes = START + 90 * TICK;
+        long hours = START + 2 * SIZE * SIZE * TICK + 7 * TICK;
+        assertTrue(wheel.add(minutes, minutes));
+        assertTrue(wheel.add(hours, hours));
+        assertEquals(2, wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        long firedAt = -1;
+        for (long now = START; now <= hours; now += TICK) {
+            wheel.advance(now, fired::add);
+            if (fired.size() == 1 && firedAt < 0) {
+                firedAt = now;
+            }
+        }
+        assertEquals(minutes, firedAt);
+        assertEquals(List.of(minutes, hours), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void bigJumpFiresEverythingDueInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, SIZE, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long deadline = START + TICK * (1 + random.nextInt(3 * SIZE * SIZE));
+            deadlines.add(deadline);
+            assertTrue(wheel.add(deadline, deadline));
+        }
+
+        long now = START + TICK * SIZE * SIZE;
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+
+        List<Long> expected = deadlines.stream().filter(d -> d <= now).sorted().toList();
+        // within a tick the order is arbitrary, across ticks it is not
+        assertEquals(expected.size(), fired.size());
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1) / TICK <= fired.get(i) / TICK);
+        }
+        assertEquals(expected, fired.stream().sorted().toList());
+        assertEquals(deadlines.size() - expected.size(), wheel.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.Notification;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.NotificationRepository;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.WaitlistService.EntryState;
+import com.parkease.backend.service.WaitlistService.WaitlistEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ending a booking hands its slot to the waitlist from an afterCommit
+ * callback; the offer's notification must still be persisted.
+ */
+@SpringBootTest
+class WaitlistHandoffIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private SlotHoldService slotHoldService;
+    @Autowired
+    private SlotAllocator slotAllocator;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private ParkingLot lot;
+    private ParkingSlot slot;
+    private Booking booking;
+    private WaitlistEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        User provider = user(Role.PROVIDER);
+        lot = new ParkingLot();
+        lot.setProvider(provider);
+        lot.setName("Waitlist Lot");
+        lot.setAddress("Test Street");
+        lot.setTotalSlots(1);
+        lot = parkingLotRepository.save(lot);
+
+        slot = new ParkingSlot();
+        slot.setParkingLot(lot);
+        slot.setSlotNumber("S-1");
+        slot.setVehicleType(VehicleType.CAR);
+        slot = parkingSlotRepository.save(slot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (entry != null) {
+            waitlistService.leave(entry.getId(), entry.getDriverId());
+        }
+        notificationRepository.deleteAll(notificationRepository.findAll().stream()
+                .filter(n -> users.stream().anyMatch(u -> u.getId().equals(n.getUserId())))
+                .toList());
+        if (booking != null) {
+            bookingRepository.deleteById(booking.getId());
+        }
+        parkingSlotRepository.deleteById(slot.getId());
+        parkingLotRepository.deleteById(lot.getId());
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void endingABookingOffersTheSlotAndNotifiesTheDriver() {
+        User parked = user(Role.DRIVER);
+        User waiting = user(Role.DRIVER);
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusHours(1);
+
+        Long slotId = slotAllocator.reserve(lot.getId(), start, end, VehicleType.CAR).orElseThrow();
+        ParkingSlot reserved = parkingSlotRepository.findById(slotId).orElseThrow();
+        booking = bookingService.startBooking(parked, lot, reserved, "KA01AB1234", start, end);
+
+        entry = waitlistService.join(waiting.getId(), lot.getId(), start.plusMinutes(10), end, VehicleType.CAR);
+        assertEquals(EntryState.WAITING, entry.getState());
+
+        bookingService.endBooking(bookingRepository.findById(booking.getId()).orElseThrow());
+
+        assertEquals(EntryState.OFFERED, entry.getState());
+        assertEquals(slotId, slotHoldService.find(entry.getHoldId()).orElseThrow().getSlotId());
+        List<Notification> sent = notificationRepository.findAll().stream()
+                .filter(n -> waiting.getId().equals(n.getUserId()))
+                .toList();
+        assertEquals(1, sent.size());
+        assertEquals("WAITLIST_OFFER", sent.get(0).getType());
+        assertEquals(lot.getId(), sent.get(0).getRefId());
+    }
+
+    private User user(Role role) {
+        User user = new User();
+        user.setFullName(role + " " + users.size());
+        user.setEmail(UUID.randomUUID() + "@waitlist.test");
+        user.setPhoneNumber(String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L)));
+        user.setPassword("x");
+        user.setRole(role);
+        user.setApproved(true);
+        user = userRepository.save(user);
+        users.add(user);
+        return user;
+    }
+}
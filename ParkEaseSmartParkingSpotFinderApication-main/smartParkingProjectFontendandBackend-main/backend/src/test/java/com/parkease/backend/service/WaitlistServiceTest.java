@@ -0,0 +1,170 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Notification;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.NotificationRepository;
+import com.parkease.backend.service.SlotHoldService.SlotHold;
+import com.parkease.backend.service.WaitlistService.EntryState;
+import com.parkease.backend.service.WaitlistService.WaitlistEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceTest {
+
+    private static final Long LOT = 7L;
+    private static final LocalDateTime START = LocalDateTime.now().plusHours(1);
+    private static final LocalDateTime END = START.plusHours(2);
+
+    // free slots of the lot; the mocked allocator hands them out and takes them back
+    private final Deque<Long> freeSlots = new ArrayDeque<>();
+
+    private NotificationRepository notificationRepository;
+    private SlotHoldService slotHoldService;
+    private WaitlistService waitlist;
+
+    @BeforeEach
+    void setUp() {
+        SlotAllocator allocator = mock(SlotAllocator.class);
+        when(allocator.reserve(anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> Optional.ofNullable(freeSlots.pollFirst()));
+        doAnswer(inv -> {
+            freeSlots.addLast(inv.getArgument(1));
+            return null;
+        }).when(allocator).release(anyLong(), anyLong(), any());
+
+        notificationRepository = mock(NotificationRepository.class);
+        slotHoldService = new SlotHoldService(allocator);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        waitlist = new WaitlistService(slotHoldService, notificationRepository, transactionManager);
+    }
+
+    private WaitlistEntry join(Long driverId) {
+        return waitlist.join(driverId, LOT, START, END, VehicleType.CAR);
+    }
+
+    // what the booking side does when a slot frees up
+    private void releaseSlot(Long slotId) {
+        freeSlots.addLast(slotId);
+        waitlist.onSlotReleased(LOT);
+    }
+
+    @Test
+    void freedSlotGoesToTheFirstDriverInLine() {
+        WaitlistEntry first = join(1L);
+        WaitlistEntry second = join(2L);
+        assertEquals(EntryState.WAITING, first.getState());
+        assertEquals(1, waitlist.position(first));
+        assertEquals(2, waitlist.position(second));
+
+        releaseSlot(100L);
+
+        assertEquals(EntryState.OFFERED, first.getState());
+        assertEquals(0, waitlist.position(first));
+        assertEquals(1, waitlist.position(second));
+        assertEquals(100L, slotHoldService.find(first.getHoldId()).orElseThrow().getSlotId());
+        verify(notificationRepository).save(any(Notification.class));
+    }
+
+    @Test
+    void joiningWhileASlotIsFreeIsOfferedAtOnce() {
+        freeSlots.add(100L);
+        assertEquals(EntryState.OFFERED, join(1L).getState());
+    }
+
+    @Test
+    void declinedOfferMovesOnToTheNextDriver() {
+        WaitlistEntry first = join(1L);
+        WaitlistEntry second = join(2L);
+        releaseSlot(100L);
+
+        // driver 1 leaves, giving up the offer
+        assertTrue(waitlist.leave(first.getId(), 1L));
+
+        assertEquals(EntryState.OFFERED, second.getState());
+        assertEquals(Optional.empty(), waitlist.find(first.getId(), 1L));
+    }
+
+    @Test
+    void confirmedOfferClosesTheEntry() {
+        WaitlistEntry first = join(1L);
+        WaitlistEntry second = join(2L);
+        releaseSlot(100L);
+
+        SlotHold hold = slotHoldService.take(first.getHoldId(), 1L);
+        slotHoldService.confirmed(hold);
+
+        assertEquals(Optional.empty(), waitlist.find(first.getId(), 1L));
+        // the slot is booked, nothing to pass on
+        assertEquals(EntryState.WAITING, second.getState());
+    }
+
+    @Test
+    void failedConfirmHandsTheSlotOn() {
+        WaitlistEntry first = join(1L);
+        WaitlistEntry second = join(2L);
+        releaseSlot(100L);
+
+        SlotHold hold = slotHoldService.take(first.getHoldId(), 1L);
+        // the booking failed: BookingService.releaseReserved frees the slot and hands it on
+        releaseSlot(hold.getSlotId());
+        slotHoldService.abandoned(hold);
+
+        assertEquals(EntryState.OFFERED, second.getState());
+        assertEquals(100L, slotHoldService.find(second.getHoldId()).orElseThrow().getSlotId());
+        assertEquals(Optional.empty(), waitlist.find(first.getId(), 1L));
+        verify(notificationRepository, atLeastOnce()).save(any(Notification.class));
+    }
+
+    @Test
+    void joinAgainReturnsTheLiveEntry() {
+        WaitlistEntry first = join(1L);
+        assertEquals(first.getId(), join(1L).getId());
+    }
+
+    @Test
+    void joinReplacesAnEntryWhoseOfferIsGone() {
+        WaitlistEntry first = join(1L);
+        releaseSlot(100L);
+        // the hold is taken but the booking never got reported back
+        slotHoldService.take(first.getHoldId(), 1L);
+
+        WaitlistEntry again = join(1L);
+
+        assertNotEquals(first.getId(), again.getId());
+        assertNull(again.getHoldId());
+        assertEquals(1, waitlist.position(again));
+        assertEquals(Optional.empty(), waitlist.find(first.getId(), 1L));
+    }
+
+    @Test
+    void joinReplacesAnEntryWhoseWindowIsOver() {
+        LocalDateTime past = LocalDateTime.now().minusHours(3);
+        WaitlistEntry stale = waitlist.join(1L, LOT, past, past.plusHours(1), VehicleType.CAR);
+
+        WaitlistEntry again = join(1L);
+
+        assertNotEquals(stale.getId(), again.getId());
+        assertEquals(END, again.getEndTime());
+        assertEquals(1, waitlist.position(again));
+    }
+}